@@ -158,3 +158,50 @@ INSERT INTO SystemSettings (SettingKey, SettingValue, Description) VALUES
 ('LANGUAGE', 'en', 'System language code')
 ON DUPLICATE KEY UPDATE SettingKey=SettingKey;
 
+
+-- Invoice ID blocks for the hi/lo allocator (invoice.id.allocator.enabled in config.properties)
+-- Each register reserves a block of IDs with one UPDATE and hands them out from memory
+CREATE TABLE IF NOT EXISTS InvoiceSequence (
+    SequenceName VARCHAR(50) PRIMARY KEY,
+    NextValue BIGINT NOT NULL
+);
+
+-- Start after the highest existing invoice
+INSERT INTO InvoiceSequence (SequenceName, NextValue)
+SELECT 'Invoices', COALESCE(MAX(InvoiceID), 0) + 1 FROM Invoices
+ON DUPLICATE KEY UPDATE SequenceName=SequenceName;
+
+-- Keyset pagination of invoice history (InvoiceDAO.getInvoicesPage): newest first by (InvoiceDate, InvoiceID)
+ALTER TABLE Invoices ADD INDEX IF NOT EXISTS idx_invoices_date_id (InvoiceDate, InvoiceID);
+
+-- Daily sales rollup per user (register), maintained by checkouts and returns (DailySalesDAO)
+-- Dashboard totals read one row per day and user instead of scanning Invoices
+CREATE TABLE IF NOT EXISTS DailySales (
+    SaleDate DATE NOT NULL,
+    UserID INT NOT NULL DEFAULT 0,              -- 0 = no logged-in user
+    InvoiceCount INT NOT NULL DEFAULT 0,
+    GrossAmount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    DiscountAmount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    TaxAmount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    ItemCount INT NOT NULL DEFAULT 0,           -- units sold
+    RefundAmount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    ReturnedUnits INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (SaleDate, UserID)
+);
+
+-- Backfill history (same computation as DailySalesDAO.rebuild); only runs while the table is empty
+INSERT INTO DailySales (SaleDate, UserID, InvoiceCount, GrossAmount, DiscountAmount, TaxAmount, ItemCount)
+SELECT DATE(i.InvoiceDate), COALESCE(i.UserID, 0), COUNT(*), SUM(i.TotalAmount),
+       SUM(ROUND(COALESCE(t.Subtotal, 0) * i.DiscountPercentage / 100, 2)), SUM(i.TaxAmount),
+       SUM(COALESCE(t.Units, 0))
+FROM Invoices i
+LEFT JOIN (SELECT InvoiceID, SUM(Quantity * PriceAtSale) AS Subtotal, SUM(Quantity) AS Units
+           FROM InvoiceItems GROUP BY InvoiceID) t ON t.InvoiceID = i.InvoiceID
+WHERE NOT EXISTS (SELECT 1 FROM DailySales)
+GROUP BY DATE(i.InvoiceDate), COALESCE(i.UserID, 0);
+
+INSERT INTO DailySales (SaleDate, UserID, RefundAmount, ReturnedUnits)
+SELECT DATE(ReturnDate), COALESCE(ProcessedByUserID, 0), SUM(RefundAmount), SUM(Quantity)
+FROM Returns
+GROUP BY DATE(ReturnDate), COALESCE(ProcessedByUserID, 0)
+ON DUPLICATE KEY UPDATE RefundAmount = VALUES(RefundAmount), ReturnedUnits = VALUES(ReturnedUnits);
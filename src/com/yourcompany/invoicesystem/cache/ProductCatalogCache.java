@@ -0,0 +1,506 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.cache;
+
+import com.yourcompany.invoicesystem.config.ConfigManager;
+import com.yourcompany.invoicesystem.dao.ProductDAO;
+import com.yourcompany.invoicesystem.event.SalesEventBus;
+import com.yourcompany.invoicesystem.event.StockChanged;
+import com.yourcompany.invoicesystem.model.Product;
+import com.yourcompany.invoicesystem.util.DBUtil;
+import com.yourcompany.invoicesystem.util.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Shared in-memory copy of the Products table.
+ *
+ * Readers get a snapshot indexed by ID, lower-cased name and barcode, so screens
+ * and reports no longer run a full table scan each time they need the catalog.
+ * Product adds/edits/removes and reloads build a new snapshot (copy-on-write).
+ * Stock is the exception: deltas from checkouts and returns are applied in place
+ * to the cached Product, so a sale costs O(items) rather than a catalog copy.
+ * Every change bumps the version and publishes a {@link StockChanged} event;
+ * consumers can compare {@link #getVersion()} with the version they last
+ * rendered to tell whether they are stale.
+ *
+ * A background task reloads the table every cache.catalog.refresh.seconds to
+ * pick up changes made outside this process (other registers, direct SQL).
+ * Free-text search uses a {@link ProductSearchIndex} that is rebuilt on reload
+ * and updated in place by {@link #upsert(Product)} and {@link #remove(int)}.
+ *
+ * Products returned by this cache are shared and their stock changes as sales
+ * commit: treat them as read-only and copy them (new Product(product)) before
+ * editing or to keep a fixed stock figure.
+ */
+public class ProductCatalogCache {
+
+    private static final ProductCatalogCache INSTANCE = new ProductCatalogCache();
+
+    private final ProductDAO productDAO = new ProductDAO();
+    private final AtomicLong version = new AtomicLong();
+    private final long refreshSeconds;
+    private final int prefixMinLength;
+    private final AtomicLong codeLookups = new AtomicLong();
+    private final AtomicLong codeLookupNanos = new AtomicLong();
+    private final AtomicLong maxCodeLookupNanos = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private volatile ProductSearchIndex searchIndex = new ProductSearchIndex();
+    private ScheduledExecutorService refresher;
+    // Changes made while a reload is reading the table, replayed onto the rows it read
+    private final List<CatalogChange> changesDuringRefresh = new ArrayList<>();
+    private int refreshesInFlight = 0;
+
+    private ProductCatalogCache() {
+        this.refreshSeconds = ConfigManager.getInt("cache.catalog.refresh.seconds", 300);
+        this.prefixMinLength = ConfigManager.getInt("barcode.prefix.min.length", 4);
+    }
+
+    public static ProductCatalogCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return Monotonic version, incremented on every change to the cached catalog
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * @return All products ordered by name (unmodifiable)
+     */
+    public List<Product> getAllProducts() {
+        return current().productsByName;
+    }
+
+    public Product getProductById(int productId) {
+        return current().byId.get(productId);
+    }
+
+    /**
+     * @param name Product name, matched case-insensitively after trimming
+     */
+    public Product getProductByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        Snapshot current = current();
+        Integer productId = current.idsByName.get(normalize(name));
+        return productId != null ? current.byId.get(productId) : null;
+    }
+
+    public Product getProductByBarcode(String barcode) {
+        if (barcode == null) {
+            return null;
+        }
+        Snapshot current = current();
+        Integer productId = current.idsByBarcode.get(barcode.trim());
+        return productId != null ? current.byId.get(productId) : null;
+    }
+
+    /**
+     * Free-text product search, see {@link ProductSearchIndex#search(String)}.
+     *
+     * @return IDs of products whose name, ID or barcode contains the query
+     */
+    public Set<Integer> search(String query) {
+        current();
+        return searchIndex.search(query);
+    }
+
+    /**
+     * Resolve a scanned or typed code to a product, in this order:
+     * exact Barcode, exact ProductID, then a barcode that is the only one
+     * starting with the code (skipped for codes shorter than barcode.prefix.min.length,
+     * or when that is 0). Every step is a hash lookup or a binary search.
+     *
+     * @param code Barcode or ProductID
+     * @return The product, or null if nothing matches unambiguously
+     */
+    public Product lookupByCode(String code) {
+        long start = System.nanoTime();
+        Product product = null;
+        if (code != null && !code.isBlank()) {
+            Snapshot current = current();
+            String trimmed = code.trim();
+            Integer productId = current.idsByBarcode.get(trimmed);
+            if (productId == null) {
+                productId = parseProductId(trimmed);
+                if (productId != null && !current.byId.containsKey(productId)) {
+                    productId = null;
+                }
+            }
+            if (productId == null && prefixMinLength > 0 && trimmed.length() >= prefixMinLength) {
+                productId = current.uniqueBarcodePrefix(trimmed);
+            }
+            product = productId != null ? current.byId.get(productId) : null;
+        }
+        recordCodeLookup(System.nanoTime() - start);
+        return product;
+    }
+
+    /**
+     * @return Number of {@link #lookupByCode(String)} calls
+     */
+    public long getCodeLookupCount() {
+        return codeLookups.get();
+    }
+
+    /**
+     * @return Mean {@link #lookupByCode(String)} latency in microseconds
+     */
+    public double getAverageCodeLookupMicros() {
+        long count = codeLookups.get();
+        return count == 0 ? 0.0 : codeLookupNanos.get() / 1_000.0 / count;
+    }
+
+    /**
+     * @return Slowest {@link #lookupByCode(String)} call in microseconds (includes the first catalog load)
+     */
+    public double getMaxCodeLookupMicros() {
+        return maxCodeLookupNanos.get() / 1_000.0;
+    }
+
+    /**
+     * @return Number of products at or below their low-stock threshold
+     */
+    public int getLowStockCount() {
+        return current().lowStockCount;
+    }
+
+    /**
+     * @return Products at or below their low-stock threshold, ordered by name
+     */
+    public List<Product> getLowStockProducts() {
+        return current().productsByName.stream()
+                .filter(ProductCatalogCache::isLowStock)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isLowStock(Product product) {
+        return product.getStock() <= product.getLowStockThreshold();
+    }
+
+    /**
+     * Apply committed stock changes, e.g. -quantity per product after a checkout
+     * or +quantity after a return.
+     *
+     * @param deltas Stock change keyed by ProductID
+     */
+    public synchronized void applyStockDeltas(Map<Integer, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (refreshesInFlight > 0) {
+            // The read may or may not include these; keep our figure rather than guess
+            Set<Integer> touched = new HashSet<>(deltas.keySet());
+            changesDuringRefresh.add((rows, index) -> keepCachedStock(rows, touched));
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            return; // not loaded yet; the first load reads the committed values
+        }
+        Map<Integer, Integer> applied = new HashMap<>();
+        int lowStockDelta = 0;
+        for (Map.Entry<Integer, Integer> delta : deltas.entrySet()) {
+            Product product = current.byId.get(delta.getKey());
+            if (product != null && delta.getValue() != 0) {
+                boolean wasLow = isLowStock(product);
+                product.setStock(product.getStock() + delta.getValue());
+                applied.put(product.getProductID(), delta.getValue());
+                lowStockDelta += (isLowStock(product) ? 1 : 0) - (wasLow ? 1 : 0);
+            }
+        }
+        if (!applied.isEmpty()) {
+            current.lowStockCount += lowStockDelta;
+            version.incrementAndGet();
+            SalesEventBus.getInstance().publish(new StockChanged(applied, lowStockDelta, current.lowStockCount));
+        }
+    }
+
+    /**
+     * Give rows read by a reload the stock of the cached product with the same ID.
+     */
+    private void keepCachedStock(Map<Integer, Product> rows, Set<Integer> productIds) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        for (Integer productId : productIds) {
+            Product row = rows.get(productId);
+            Product cached = current.byId.get(productId);
+            if (row != null && cached != null) {
+                row.setStock(cached.getStock());
+            }
+        }
+    }
+
+    public void applyStockDelta(int productId, int delta) {
+        applyStockDeltas(Collections.singletonMap(productId, delta));
+    }
+
+    /**
+     * Add or replace one product after it was saved to the database.
+     */
+    public synchronized void upsert(Product product) {
+        Product copy = new Product(product);
+        if (refreshesInFlight > 0) {
+            changesDuringRefresh.add((rows, index) -> {
+                rows.put(copy.getProductID(), new Product(copy));
+                index.put(copy);
+            });
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        List<Product> products = new ArrayList<>(current.byId.values());
+        products.removeIf(p -> p.getProductID() == copy.getProductID());
+        products.add(copy);
+        publish(new Snapshot(products));
+        searchIndex.put(copy);
+    }
+
+    /**
+     * Remove one product after it was deleted from the database.
+     */
+    public synchronized void remove(int productId) {
+        if (refreshesInFlight > 0) {
+            changesDuringRefresh.add((rows, index) -> {
+                rows.remove(productId);
+                index.remove(productId);
+            });
+        }
+        Snapshot current = snapshot;
+        if (current == null || !current.byId.containsKey(productId)) {
+            return;
+        }
+        List<Product> products = new ArrayList<>(current.byId.values());
+        products.removeIf(p -> p.getProductID() == productId);
+        publish(new Snapshot(products));
+        searchIndex.remove(productId);
+    }
+
+    /**
+     * Reload the whole catalog from the database now.
+     *
+     * Product changes made while the table is being read are replayed onto the
+     * rows read, so a reload under steady checkout traffic still replaces the
+     * snapshot. A product whose stock changed here during the read keeps its cached
+     * stock, since the read may or may not include that sale; a change made to it
+     * outside this process meanwhile is picked up by the next reload.
+     *
+     * @return true if the reload succeeded
+     */
+    public boolean refresh() {
+        long start = System.nanoTime();
+        int firstChange;
+        synchronized (this) {
+            firstChange = changesDuringRefresh.size();
+            refreshesInFlight++;
+        }
+        try {
+            List<Product> products;
+            try (Connection conn = DBUtil.getConnection()) {
+                products = productDAO.getAllProducts(conn);
+            } catch (SQLException e) {
+                Logger.error("Error loading product catalog: " + e.getMessage(), e);
+                return false;
+            }
+            ProductSearchIndex index = new ProductSearchIndex(products);
+
+            int replayed;
+            synchronized (this) {
+                List<CatalogChange> changes = changesDuringRefresh.subList(firstChange, changesDuringRefresh.size());
+                replayed = changes.size();
+                if (replayed > 0) {
+                    Map<Integer, Product> rows = new HashMap<>(products.size() * 2);
+                    for (Product product : products) {
+                        rows.put(product.getProductID(), product);
+                    }
+                    for (CatalogChange change : changes) {
+                        change.replay(rows, index);
+                    }
+                    products = new ArrayList<>(rows.values());
+                }
+                searchIndex = index;
+                publish(new Snapshot(products));
+            }
+            int loaded = products.size();
+            Logger.debug(() -> String.format("Product catalog loaded: %d products in %.1f ms, %d changes replayed",
+                    loaded, (System.nanoTime() - start) / 1_000_000.0, replayed));
+            return true;
+        } finally {
+            synchronized (this) {
+                if (--refreshesInFlight == 0) {
+                    changesDuringRefresh.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop the background refresh (for shutdown).
+     */
+    public synchronized void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                refresh();
+                startBackgroundRefresh();
+            }
+            return snapshot != null ? snapshot : Snapshot.EMPTY;
+        }
+    }
+
+    /**
+     * Replace the snapshot and tell listeners, with a full low-stock recount so
+     * they never have to reconcile deltas against their own loads.
+     */
+    private void publish(Snapshot next) {
+        Snapshot previous = snapshot;
+        snapshot = next;
+        version.incrementAndGet();
+        int lowStockDelta = next.lowStockCount - (previous != null ? previous.lowStockCount : 0);
+        SalesEventBus.getInstance().publish(new StockChanged(Collections.emptyMap(), lowStockDelta, next.lowStockCount));
+    }
+
+    private void startBackgroundRefresh() {
+        if (refresher != null || refreshSeconds <= 0) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "catalog-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    private void recordCodeLookup(long nanos) {
+        codeLookups.incrementAndGet();
+        codeLookupNanos.addAndGet(nanos);
+        maxCodeLookupNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @return The code as a ProductID, or null if it isn't a plain positive int
+     */
+    private static Integer parseProductId(String code) {
+        if (code.length() > 9) {
+            return null;
+        }
+        int id = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A change to the catalog, replayed onto rows read by a reload that overlapped it.
+     */
+    private interface CatalogChange {
+        void replay(Map<Integer, Product> rows, ProductSearchIndex index);
+    }
+
+    /**
+     * One version of the catalog and its indexes. Only the products' stock, and
+     * the low-stock count that follows it, change after publication.
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(List.of());
+
+        final Map<Integer, Product> byId;
+        final Map<String, Integer> idsByName;
+        final Map<String, Integer> idsByBarcode;
+        final String[] sortedBarcodes;
+        final List<Product> productsByName;
+        volatile int lowStockCount;   // updated with stock, under the cache's lock
+
+        Snapshot(List<Product> products) {
+            Map<Integer, Product> ids = new HashMap<>(products.size() * 2);
+            Map<String, Integer> names = new HashMap<>(products.size() * 2);
+            Map<String, Integer> barcodes = new HashMap<>();
+            int lowStock = 0;
+            for (Product product : products) {
+                ids.put(product.getProductID(), product);
+                if (isLowStock(product)) {
+                    lowStock++;
+                }
+                if (product.getName() != null) {
+                    names.putIfAbsent(normalize(product.getName()), product.getProductID());
+                }
+                if (product.getBarcode() != null && !product.getBarcode().isBlank()) {
+                    barcodes.put(product.getBarcode().trim(), product.getProductID());
+                }
+            }
+            List<Product> sorted = new ArrayList<>(products);
+            sorted.sort(Comparator.comparing(Product::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+
+            this.byId = Collections.unmodifiableMap(ids);
+            this.idsByName = Collections.unmodifiableMap(names);
+            this.idsByBarcode = Collections.unmodifiableMap(barcodes);
+            this.sortedBarcodes = barcodes.keySet().toArray(new String[0]);
+            Arrays.sort(this.sortedBarcodes);
+            this.productsByName = Collections.unmodifiableList(sorted);
+            this.lowStockCount = lowStock;
+        }
+
+        /**
+         * @return ProductID of the only barcode starting with prefix, or null if none or several do
+         */
+        Integer uniqueBarcodePrefix(String prefix) {
+            int index = Arrays.binarySearch(sortedBarcodes, prefix);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            if (index >= sortedBarcodes.length || !sortedBarcodes[index].startsWith(prefix)) {
+                return null;
+            }
+            if (index + 1 < sortedBarcodes.length && sortedBarcodes[index + 1].startsWith(prefix)) {
+                return null; // ambiguous; better to ask for a rescan than add the wrong item
+            }
+            return idsByBarcode.get(sortedBarcodes[index]);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.cache;
+
+import com.yourcompany.invoicesystem.model.Product;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive substring search over product name, ID and barcode.
+ *
+ * Each product is indexed as one lower-cased text ("name\nid\nbarcode") and
+ * every 3-character window of that text (trigram) points to the products that
+ * contain it. A query of 3+ characters takes the shortest posting list among
+ * its trigrams and keeps the candidates whose text really contains the query,
+ * so the cost depends on how selective the query is, not on catalog size.
+ * Shorter queries fall back to a scan of the indexed texts.
+ *
+ * The query is matched literally; characters like '(' or '+' have no special meaning.
+ * Safe for concurrent use: searches share a read lock, updates take the write lock.
+ */
+public class ProductSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<Integer, String> textById = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ProductSearchIndex() {
+    }
+
+    public ProductSearchIndex(Collection<Product> products) {
+        for (Product product : products) {
+            add(product.getProductID(), textOf(product));
+        }
+    }
+
+    /**
+     * Add a product, or re-index it if its name or barcode changed.
+     */
+    public void put(Product product) {
+        String text = textOf(product);
+        lock.writeLock().lock();
+        try {
+            String old = textById.get(product.getProductID());
+            if (text.equals(old)) {
+                return;
+            }
+            if (old != null) {
+                removeText(product.getProductID(), old);
+            }
+            add(product.getProductID(), text);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int productId) {
+        lock.writeLock().lock();
+        try {
+            String old = textById.remove(productId);
+            if (old != null) {
+                removeText(productId, old);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return textById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param query Text to find in name, ID or barcode (case-insensitive, trimmed)
+     * @return IDs of matching products; every product for a blank query
+     */
+    public Set<Integer> search(String query) {
+        String needle = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            if (needle.isEmpty()) {
+                return new HashSet<>(textById.keySet());
+            }
+            Set<Integer> matches = new HashSet<>();
+            if (needle.length() < GRAM) {
+                for (Map.Entry<Integer, String> entry : textById.entrySet()) {
+                    if (entry.getValue().contains(needle)) {
+                        matches.add(entry.getKey());
+                    }
+                }
+                return matches;
+            }
+
+            Postings shortest = null;
+            for (int i = 0; i + GRAM <= needle.length(); i++) {
+                Postings candidates = postings.get(gram(needle, i));
+                if (candidates == null) {
+                    return matches; // some trigram occurs nowhere
+                }
+                if (shortest == null || candidates.size < shortest.size) {
+                    shortest = candidates;
+                }
+            }
+            for (int i = 0; i < shortest.size; i++) {
+                int productId = shortest.ids[i];
+                if (textById.get(productId).contains(needle)) {
+                    matches.add(productId);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(int productId, String text) {
+        textById.put(productId, text);
+        for (long gram : grams(text)) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(productId);
+        }
+    }
+
+    private void removeText(int productId, String text) {
+        for (long gram : grams(text)) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(productId) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * @return Distinct trigrams of text, so a product appears at most once per posting list
+     */
+    private static long[] grams(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = gram(text, i);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Pack three UTF-16 chars into one long key.
+     */
+    private static long gram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    private static String textOf(Product product) {
+        StringBuilder text = new StringBuilder();
+        if (product.getName() != null) {
+            text.append(product.getName().toLowerCase(Locale.ROOT));
+        }
+        // '\n' can't be typed into the search field, so no match spans two fields
+        text.append('\n').append(product.getProductID());
+        if (product.getBarcode() != null) {
+            text.append('\n').append(product.getBarcode().toLowerCase(Locale.ROOT));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Growable list of product IDs sharing one trigram. Unordered; removal swaps in the last ID.
+     */
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int productId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = productId;
+        }
+
+        boolean remove(int productId) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == productId) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
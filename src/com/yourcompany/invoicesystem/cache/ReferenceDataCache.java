@@ -0,0 +1,253 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.cache;
+
+import com.yourcompany.invoicesystem.config.ConfigManager;
+import com.yourcompany.invoicesystem.dao.ReferenceDataDAO;
+import com.yourcompany.invoicesystem.model.PaymentMethod;
+import com.yourcompany.invoicesystem.model.TaxRate;
+import com.yourcompany.invoicesystem.util.DBUtil;
+import com.yourcompany.invoicesystem.util.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory cache of PaymentMethods, TaxConfiguration and SystemSettings.
+ *
+ * All three tables are loaded together into an immutable snapshot, so readers
+ * never lock and always see a consistent set. The snapshot is reloaded when it
+ * is older than cache.reference.ttl.seconds or after {@link #invalidate()}
+ * (call it after editing any of these tables). If a reload fails, the previous
+ * snapshot keeps being served and the reload is retried after the next TTL.
+ *
+ * Only the very first load runs on the calling thread. After that an expired
+ * snapshot keeps being served while a background thread reloads it, so a lookup
+ * never borrows a connection: callers include the EDT and checkout steps that
+ * already hold a pooled connection and row locks.
+ *
+ * Name lookups are case-insensitive.
+ */
+public class ReferenceDataCache {
+
+    private static final ReferenceDataCache INSTANCE = new ReferenceDataCache();
+
+    private final ReferenceDataDAO referenceDataDAO = new ReferenceDataDAO();
+    private final long ttlNanos;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicBoolean reloading = new AtomicBoolean(false);
+    private final ExecutorService reloader = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "reference-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile long expiresAt = System.nanoTime(); // nanoTime; starts expired
+
+    private ReferenceDataCache() {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ConfigManager.getInt("cache.reference.ttl.seconds", 300));
+    }
+
+    public static ReferenceDataCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Load all reference data now. Call once at startup so the first dialog doesn't pay for it.
+     */
+    public void preload() {
+        refresh();
+    }
+
+    /**
+     * Mark the cached data as stale; the next lookup reloads it.
+     */
+    public void invalidate() {
+        expiresAt = System.nanoTime();
+    }
+
+    /**
+     * Reload all reference data immediately.
+     *
+     * @return true if the reload succeeded
+     */
+    public synchronized boolean refresh() {
+        long start = System.nanoTime();
+        try (Connection conn = DBUtil.getConnection()) {
+            snapshot = new Snapshot(
+                    referenceDataDAO.loadPaymentMethods(conn),
+                    referenceDataDAO.loadTaxRates(conn),
+                    referenceDataDAO.loadSystemSettings(conn));
+            loads.incrementAndGet();
+            Logger.debug(() -> String.format("Reference data loaded in %.1f ms", (System.nanoTime() - start) / 1_000_000.0));
+            return true;
+        } catch (SQLException e) {
+            Logger.error("Error loading reference data, keeping previous values: " + e.getMessage(), e);
+            return false;
+        } finally {
+            expiresAt = System.nanoTime() + ttlNanos;
+        }
+    }
+
+    /**
+     * @return Active payment methods, ordered by name
+     */
+    public List<PaymentMethod> getActivePaymentMethods() {
+        return current().activePaymentMethods;
+    }
+
+    public PaymentMethod getPaymentMethodById(int paymentMethodId) {
+        return current().paymentMethodsById.get(paymentMethodId);
+    }
+
+    public PaymentMethod getPaymentMethodByName(String methodName) {
+        return methodName == null ? null : current().paymentMethodsByName.get(normalize(methodName));
+    }
+
+    /**
+     * @return Active tax rates, ordered by ID
+     */
+    public List<TaxRate> getActiveTaxRates() {
+        return current().activeTaxRates;
+    }
+
+    public TaxRate getTaxRateById(int taxId) {
+        return current().taxRatesById.get(taxId);
+    }
+
+    public TaxRate getTaxRateByName(String taxName) {
+        return taxName == null ? null : current().taxRatesByName.get(normalize(taxName));
+    }
+
+    /**
+     * Get a value from the SystemSettings table.
+     *
+     * @param key Setting key (e.g. TAX_ENABLED)
+     * @param defaultValue Value returned if the setting is missing
+     */
+    public String getSetting(String key, String defaultValue) {
+        return current().settings.getOrDefault(key, defaultValue);
+    }
+
+    public boolean getBooleanSetting(String key, boolean defaultValue) {
+        String value = getSetting(key, null);
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+
+    /**
+     * @return Fraction of lookups served without reloading (0.0 - 1.0)
+     */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    private Snapshot current() {
+        if (System.nanoTime() - expiresAt < 0) {
+            hits.incrementAndGet();
+            return snapshot;
+        }
+        misses.incrementAndGet();
+        Snapshot current = snapshot;
+        if (current != Snapshot.EMPTY) {
+            reloadInBackground();
+            return current;
+        }
+        synchronized (this) {
+            // Nothing loaded yet, so there is nothing to serve meanwhile.
+            // Another thread may have loaded while we waited.
+            if (snapshot == Snapshot.EMPTY && System.nanoTime() - expiresAt >= 0) {
+                refresh();
+            }
+        }
+        return snapshot;
+    }
+
+    private void reloadInBackground() {
+        if (reloading.compareAndSet(false, true)) {
+            reloader.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    reloading.set(false);
+                }
+            });
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One consistent, immutable set of reference data.
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(List.of(), List.of(), Map.of());
+
+        final Map<Integer, PaymentMethod> paymentMethodsById;
+        final Map<String, PaymentMethod> paymentMethodsByName;
+        final List<PaymentMethod> activePaymentMethods;
+        final Map<Integer, TaxRate> taxRatesById;
+        final Map<String, TaxRate> taxRatesByName;
+        final List<TaxRate> activeTaxRates;
+        final Map<String, String> settings;
+
+        Snapshot(List<PaymentMethod> paymentMethods, List<TaxRate> taxRates, Map<String, String> settings) {
+            Map<Integer, PaymentMethod> methodsById = new HashMap<>();
+            Map<String, PaymentMethod> methodsByName = new HashMap<>();
+            for (PaymentMethod method : paymentMethods) {
+                methodsById.put(method.getPaymentMethodID(), method);
+                methodsByName.put(normalize(method.getMethodName()), method);
+            }
+            this.paymentMethodsById = Collections.unmodifiableMap(methodsById);
+            this.paymentMethodsByName = Collections.unmodifiableMap(methodsByName);
+            this.activePaymentMethods = Collections.unmodifiableList(
+                    paymentMethods.stream().filter(PaymentMethod::isActive).collect(Collectors.toList()));
+
+            Map<Integer, TaxRate> ratesById = new HashMap<>();
+            Map<String, TaxRate> ratesByName = new HashMap<>();
+            for (TaxRate rate : taxRates) {
+                ratesById.put(rate.getTaxID(), rate);
+                ratesByName.put(normalize(rate.getTaxName()), rate);
+            }
+            this.taxRatesById = Collections.unmodifiableMap(ratesById);
+            this.taxRatesByName = Collections.unmodifiableMap(ratesByName);
+            this.activeTaxRates = Collections.unmodifiableList(
+                    taxRates.stream().filter(TaxRate::isActive).collect(Collectors.toList()));
+
+            this.settings = Collections.unmodifiableMap(new HashMap<>(settings));
+        }
+    }
+}
@@ -23,6 +23,7 @@ public class ConfigManager {
     
     static {
         loadConfiguration();
+        Logger.configure(properties);
     }
     
     /**
@@ -185,6 +186,7 @@ public class ConfigManager {
      */
     public static void reload() {
         loadConfiguration();
+        Logger.configure(properties);
     }
 }
 
@@ -105,7 +105,7 @@ public class CustomerDAO {
                         customer.setCustomerID(generatedKeys.getInt(1));
                     }
                 }
-                Logger.info("Customer created: " + customer.getCustomerName());
+                Logger.info("Customer created: {}", customer.getCustomerName());
                 return true;
             }
         } catch (SQLException e) {
@@ -131,7 +131,7 @@ public class CustomerDAO {
             
             int rowsAffected = pstmt.executeUpdate();
             if (rowsAffected > 0) {
-                Logger.info("Customer updated: " + customer.getCustomerID());
+                Logger.info("Customer updated: {}", customer.getCustomerID());
                 return true;
             }
         } catch (SQLException e) {
@@ -0,0 +1,212 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.dao;
+
+import com.yourcompany.invoicesystem.model.SalesTotals;
+import com.yourcompany.invoicesystem.util.DBUtil;
+import com.yourcompany.invoicesystem.util.Logger;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Data access for the DailySales rollup: one row per day and user (register)
+ * with invoice count, amounts and units, so dashboard totals read a handful of
+ * rows per day instead of scanning Invoices.
+ *
+ * Checkouts and returns update their row inside their own transaction, so the
+ * rollup commits or rolls back with the sale. Rows are keyed by user so
+ * concurrent registers don't queue on the same row lock. {@link #rebuild}
+ * recomputes a date range from Invoices and Returns, e.g. after a restore.
+ */
+public class DailySalesDAO {
+
+    /** UserID stored for sales made without a logged-in user. */
+    public static final int NO_USER = 0;
+
+    private static final String RECORD_SALE_SQL =
+            "INSERT INTO DailySales (SaleDate, UserID, InvoiceCount, GrossAmount, DiscountAmount, TaxAmount, ItemCount) "
+          + "VALUES (?, ?, 1, ?, ?, ?, ?) "
+          + "ON DUPLICATE KEY UPDATE InvoiceCount = InvoiceCount + 1, GrossAmount = GrossAmount + VALUES(GrossAmount), "
+          + "DiscountAmount = DiscountAmount + VALUES(DiscountAmount), TaxAmount = TaxAmount + VALUES(TaxAmount), "
+          + "ItemCount = ItemCount + VALUES(ItemCount)";
+
+    private static final String RECORD_RETURN_SQL =
+            "INSERT INTO DailySales (SaleDate, UserID, RefundAmount, ReturnedUnits) VALUES (?, ?, ?, ?) "
+          + "ON DUPLICATE KEY UPDATE RefundAmount = RefundAmount + VALUES(RefundAmount), "
+          + "ReturnedUnits = ReturnedUnits + VALUES(ReturnedUnits)";
+
+    /**
+     * Adds one invoice to its day's totals.
+     * Does NOT commit or close the connection - caller is responsible.
+     *
+     * @param conn The checkout transaction's connection.
+     * @param saleDate Invoice date.
+     * @param userId Cashier, or null if nobody is logged in.
+     * @param grossAmount Invoice total (after discount and tax).
+     * @param discountAmount Discount given, in currency.
+     * @param taxAmount Tax charged.
+     * @param units Units sold (sum of item quantities).
+     * @throws SQLException if a database access error occurs.
+     */
+    public void recordSale(Connection conn, LocalDate saleDate, Integer userId, BigDecimal grossAmount,
+                           BigDecimal discountAmount, BigDecimal taxAmount, int units) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(RECORD_SALE_SQL)) {
+            pstmt.setDate(1, Date.valueOf(saleDate));
+            pstmt.setInt(2, userId != null ? userId : NO_USER);
+            pstmt.setBigDecimal(3, grossAmount);
+            pstmt.setBigDecimal(4, discountAmount);
+            pstmt.setBigDecimal(5, taxAmount);
+            pstmt.setInt(6, units);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Books a return against the day it is processed, so past days don't change.
+     * Does NOT commit or close the connection - caller is responsible.
+     *
+     * @param conn The return transaction's connection.
+     * @param returnDate Day the return is processed.
+     * @param userId User processing the return, or null.
+     * @param refundAmount Total refunded.
+     * @param units Units taken back.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void recordReturn(Connection conn, LocalDate returnDate, Integer userId, BigDecimal refundAmount,
+                             int units) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(RECORD_RETURN_SQL)) {
+            pstmt.setDate(1, Date.valueOf(returnDate));
+            pstmt.setInt(2, userId != null ? userId : NO_USER);
+            pstmt.setBigDecimal(3, refundAmount);
+            pstmt.setInt(4, units);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Net sales (gross less refunds) and invoice count over a date range.
+     *
+     * @param fromDate First day (inclusive).
+     * @param toDate Last day (inclusive).
+     * @return The totals, zero if there were no sales.
+     * @throws SQLException if a database access error occurs.
+     */
+    public SalesTotals getTotals(LocalDate fromDate, LocalDate toDate) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(InvoiceCount), 0) AS InvoiceCount, "
+                   + "COALESCE(SUM(GrossAmount - RefundAmount), 0) AS NetAmount "
+                   + "FROM DailySales WHERE SaleDate BETWEEN ? AND ?";
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, Date.valueOf(fromDate));
+            pstmt.setDate(2, Date.valueOf(toDate));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return new SalesTotals(rs.getInt("InvoiceCount"), rs.getBigDecimal("NetAmount"));
+            }
+        }
+    }
+
+    /**
+     * Net sales per day over a date range. Days without sales or returns are absent.
+     *
+     * @param fromDate First day (inclusive).
+     * @param toDate Last day (inclusive).
+     * @return Net amount per day, in date order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Map<LocalDate, BigDecimal> getDailyNetSales(LocalDate fromDate, LocalDate toDate) throws SQLException {
+        String sql = "SELECT SaleDate, SUM(GrossAmount - RefundAmount) AS NetAmount FROM DailySales "
+                   + "WHERE SaleDate BETWEEN ? AND ? GROUP BY SaleDate ORDER BY SaleDate";
+
+        Map<LocalDate, BigDecimal> days = new LinkedHashMap<>();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, Date.valueOf(fromDate));
+            pstmt.setDate(2, Date.valueOf(toDate));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    days.put(rs.getDate("SaleDate").toLocalDate(), rs.getBigDecimal("NetAmount"));
+                }
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Recomputes the rollup for a date range from Invoices, InvoiceItems and Returns,
+     * in one transaction. Use to backfill history or repair the table after a restore.
+     *
+     * @param fromDate First day (inclusive), or null to start at the earliest sale.
+     * @param toDate Last day (inclusive), or null for no upper bound.
+     * @return Number of day/user rows written for sales.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int rebuild(LocalDate fromDate, LocalDate toDate) throws SQLException {
+        // Half-open range on the raw columns keeps the date index usable
+        LocalDate from = fromDate != null ? fromDate : LocalDate.of(1970, 1, 1);
+        LocalDate toExclusive = toDate != null ? toDate.plusDays(1) : LocalDate.of(9999, 1, 1);
+
+        String deleteSql = "DELETE FROM DailySales WHERE SaleDate >= ? AND SaleDate < ?";
+        String salesSql =
+                "INSERT INTO DailySales (SaleDate, UserID, InvoiceCount, GrossAmount, DiscountAmount, TaxAmount, ItemCount) "
+              + "SELECT DATE(i.InvoiceDate), COALESCE(i.UserID, 0), COUNT(*), SUM(i.TotalAmount), "
+              + "SUM(ROUND(COALESCE(t.Subtotal, 0) * i.DiscountPercentage / 100, 2)), SUM(i.TaxAmount), "
+              + "SUM(COALESCE(t.Units, 0)) "
+              + "FROM Invoices i LEFT JOIN (SELECT ii.InvoiceID, SUM(ii.Quantity * ii.PriceAtSale) AS Subtotal, "
+              + "SUM(ii.Quantity) AS Units FROM InvoiceItems ii JOIN Invoices r ON r.InvoiceID = ii.InvoiceID "
+              + "WHERE r.InvoiceDate >= ? AND r.InvoiceDate < ? GROUP BY ii.InvoiceID) t ON t.InvoiceID = i.InvoiceID "
+              + "WHERE i.InvoiceDate >= ? AND i.InvoiceDate < ? "
+              + "GROUP BY DATE(i.InvoiceDate), COALESCE(i.UserID, 0)";
+        String returnsSql =
+                "INSERT INTO DailySales (SaleDate, UserID, RefundAmount, ReturnedUnits) "
+              + "SELECT DATE(ReturnDate), COALESCE(ProcessedByUserID, 0), SUM(RefundAmount), SUM(Quantity) "
+              + "FROM Returns WHERE ReturnDate >= ? AND ReturnDate < ? "
+              + "GROUP BY DATE(ReturnDate), COALESCE(ProcessedByUserID, 0) "
+              + "ON DUPLICATE KEY UPDATE RefundAmount = VALUES(RefundAmount), ReturnedUnits = VALUES(ReturnedUnits)";
+
+        Date start = Date.valueOf(from);
+        Date end = Date.valueOf(toExclusive);
+        try (Connection conn = DBUtil.getConnection(false)) {
+            try {
+                int rows;
+                try (PreparedStatement pstmt = conn.prepareStatement(deleteSql)) {
+                    pstmt.setDate(1, start);
+                    pstmt.setDate(2, end);
+                    pstmt.executeUpdate();
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(salesSql)) {
+                    pstmt.setDate(1, start);
+                    pstmt.setDate(2, end);
+                    pstmt.setDate(3, start);
+                    pstmt.setDate(4, end);
+                    rows = pstmt.executeUpdate();
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(returnsSql)) {
+                    pstmt.setDate(1, start);
+                    pstmt.setDate(2, end);
+                    pstmt.executeUpdate();
+                }
+                conn.commit();
+                Logger.info("Rebuilt DailySales from " + (fromDate != null ? fromDate : "start")
+                        + " to " + (toDate != null ? toDate : "end") + ": " + rows + " rows");
+                return rows;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.dao;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in the invoice list, which is ordered by (InvoiceDate, InvoiceID) newest first.
+ * A page read with a cursor starts at the first invoice after it, so pages stay
+ * stable while new invoices are added and every page costs one index range scan,
+ * however deep into the history it is.
+ */
+public final class InvoiceCursor {
+
+    private final LocalDate invoiceDate;
+    private final int invoiceID;
+
+    public InvoiceCursor(LocalDate invoiceDate, int invoiceID) {
+        if (invoiceDate == null) {
+            throw new IllegalArgumentException("Cursor date must not be null");
+        }
+        this.invoiceDate = invoiceDate;
+        this.invoiceID = invoiceID;
+    }
+
+    public LocalDate getInvoiceDate() {
+        return invoiceDate;
+    }
+
+    public int getInvoiceID() {
+        return invoiceID;
+    }
+
+    /**
+     * @return Token for URLs, e.g. "2025-03-14_1042"; read back with {@link #parse(String)}
+     */
+    public String toToken() {
+        return invoiceDate + "_" + invoiceID;
+    }
+
+    /**
+     * @param token Value from {@link #toToken()}
+     * @return The cursor, or null if the token is empty or malformed
+     */
+    public static InvoiceCursor parse(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        int separator = token.indexOf('_');
+        if (separator < 0) {
+            return null;
+        }
+        try {
+            return new InvoiceCursor(LocalDate.parse(token.substring(0, separator)),
+                    Integer.parseInt(token.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InvoiceCursor [invoiceDate=" + invoiceDate + ", invoiceID=" + invoiceID + "]";
+    }
+}
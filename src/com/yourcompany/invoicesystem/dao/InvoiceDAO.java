@@ -7,6 +7,8 @@
 package com.yourcompany.invoicesystem.dao; // Ensure this matches your package name
 
 import com.yourcompany.invoicesystem.model.Invoice; // Import the Invoice model
+import com.yourcompany.invoicesystem.model.InvoiceSummary;
+import com.yourcompany.invoicesystem.model.SalesTotals;
 import com.yourcompany.invoicesystem.util.DBUtil;   // Import the DB utility
 
 import java.sql.Connection;
@@ -14,46 +16,28 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement; // Needed for retrieving generated keys
+import java.sql.Types;
 import java.sql.Date;      // Use java.sql.Date for PreparedStatement if column type is DATE
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class InvoiceDAO {
 
     /**
      * Saves a new invoice to the database and returns the generated Invoice ID.
-     * Assumes the InvoiceID column in the database is set to auto-increment.
+     * The ID comes from AUTO_INCREMENT or the InvoiceIdAllocator, see {@link #saveInvoice(Invoice, Connection)}.
      *
      * @param invoice The Invoice object to save (InvoiceID can be 0 or ignored).
      * @return The auto-generated InvoiceID from the database, or -1 if saving failed.
      */
     public int saveInvoice(Invoice invoice) {
-        String sql = "INSERT INTO Invoices (InvoiceDate, TotalAmount) VALUES (?, ?)";
         int generatedInvoiceId = -1; // Default to -1 indicating failure
 
-        // Using try-with-resources for Connection and PreparedStatement
-        // Note: Statement.RETURN_GENERATED_KEYS tells the driver to make generated keys available
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            // Convert LocalDate to java.sql.Date for JDBC
-            pstmt.setDate(1, Date.valueOf(invoice.getInvoiceDate()));
-            pstmt.setBigDecimal(2, invoice.getTotalAmount());
-
-            int rowsAffected = pstmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                // Retrieve the auto-generated key (InvoiceID)
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        generatedInvoiceId = generatedKeys.getInt(1); // Get the first generated key
-                    } else {
-                        System.err.println("Creating invoice failed, no ID obtained.");
-                        // Consider throwing an exception here
-                    }
-                }
-            }
+        try (Connection conn = DBUtil.getConnection()) {
+            generatedInvoiceId = saveInvoice(invoice, conn);
         } catch (SQLException e) {
             System.err.println("Error saving invoice: " + e.getMessage());
             // e.printStackTrace();
@@ -154,23 +138,283 @@ public class InvoiceDAO {
         return invoices;
     }
     // --- End of method to add ---
+
+    /** Upper bound for one page, whatever the caller asks for. */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * Retrieves one page of invoices, newest first, ordered by (InvoiceDate, InvoiceID).
+     * Uses keyset pagination: the page starts right after the cursor instead of at an
+     * OFFSET, so the cost is the same on page 1 and page 100,000 (with the
+     * idx_invoices_date_id index from database_updates.sql).
+     *
+     * @param cursor Position after which the page starts, or null for the first page.
+     * @param limit Maximum number of invoices (capped at {@link #MAX_PAGE_SIZE}).
+     * @param filter Optional date range, customer and payment status conditions.
+     * @return The page, with the cursor for the next one.
+     * @throws SQLException if a database access error occurs.
+     */
+    public InvoicePage<Invoice> getInvoicesPage(InvoiceCursor cursor, int limit, InvoiceFilter filter)
+            throws SQLException {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        StringBuilder sql = new StringBuilder(
+                "SELECT InvoiceID, InvoiceDate, TotalAmount, PaymentStatus FROM Invoices");
+        List<Object> params = new ArrayList<>();
+        appendPageConditions(sql, params, "", cursor, filter);
+        sql.append(" ORDER BY InvoiceDate DESC, InvoiceID DESC LIMIT ?");
+        params.add(pageSize + 1); // one extra row tells us whether there is a next page
+
+        List<Invoice> invoices = new ArrayList<>();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            bindParams(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Invoice invoice = new Invoice(rs.getInt("InvoiceID"), rs.getDate("InvoiceDate").toLocalDate(),
+                            rs.getBigDecimal("TotalAmount"));
+                    invoice.setPaymentStatus(rs.getString("PaymentStatus"));
+                    invoices.add(invoice);
+                }
+            }
+        }
+        return toPage(invoices, pageSize, inv -> new InvoiceCursor(inv.getInvoiceDate(), inv.getInvoiceID()));
+    }
+
+    /**
+     * Retrieves one page of invoice summaries (header plus item count and total quantity),
+     * paged exactly like {@link #getInvoicesPage(InvoiceCursor, int, InvoiceFilter)}.
+     * The page of invoices is picked first in a derived table, so only its items are
+     * aggregated - one query per page instead of one item query per invoice.
+     *
+     * @param cursor Position after which the page starts, or null for the first page.
+     * @param limit Maximum number of invoices (capped at {@link #MAX_PAGE_SIZE}).
+     * @param filter Optional date range, customer and payment status conditions.
+     * @return The page, with the cursor for the next one.
+     * @throws SQLException if a database access error occurs.
+     */
+    public InvoicePage<InvoiceSummary> getInvoiceSummariesPage(InvoiceCursor cursor, int limit, InvoiceFilter filter)
+            throws SQLException {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        StringBuilder sql = new StringBuilder(
+                "SELECT i.InvoiceID, i.InvoiceDate, i.TotalAmount, i.PaymentStatus, "
+              + "COUNT(ii.InvoiceItemID) AS ItemCount, COALESCE(SUM(ii.Quantity), 0) AS TotalQuantity "
+              + "FROM (SELECT InvoiceID, InvoiceDate, TotalAmount, PaymentStatus FROM Invoices");
+        List<Object> params = new ArrayList<>();
+        appendPageConditions(sql, params, "", cursor, filter);
+        sql.append(" ORDER BY InvoiceDate DESC, InvoiceID DESC LIMIT ?) i")
+           .append(" LEFT JOIN InvoiceItems ii ON ii.InvoiceID = i.InvoiceID")
+           .append(" GROUP BY i.InvoiceID, i.InvoiceDate, i.TotalAmount, i.PaymentStatus")
+           .append(" ORDER BY i.InvoiceDate DESC, i.InvoiceID DESC");
+        params.add(pageSize + 1);
+
+        List<InvoiceSummary> summaries = new ArrayList<>();
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            bindParams(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.add(mapSummary(rs));
+                }
+            }
+        }
+        return toPage(summaries, pageSize, s -> new InvoiceCursor(s.getInvoiceDate(), s.getInvoiceID()));
+    }
+
+    /**
+     * Retrieves the summary of a single invoice.
+     *
+     * @param invoiceId The ID of the invoice.
+     * @return The summary, or null if the invoice doesn't exist.
+     * @throws SQLException if a database access error occurs.
+     */
+    public InvoiceSummary getInvoiceSummary(int invoiceId) throws SQLException {
+        String sql = "SELECT i.InvoiceID, i.InvoiceDate, i.TotalAmount, i.PaymentStatus, "
+                   + "COUNT(ii.InvoiceItemID) AS ItemCount, COALESCE(SUM(ii.Quantity), 0) AS TotalQuantity "
+                   + "FROM Invoices i LEFT JOIN InvoiceItems ii ON ii.InvoiceID = i.InvoiceID "
+                   + "WHERE i.InvoiceID = ? "
+                   + "GROUP BY i.InvoiceID, i.InvoiceDate, i.TotalAmount, i.PaymentStatus";
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, invoiceId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapSummary(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Streams the summary (header plus item count and total quantity) of every invoice
+     * matching the filter, oldest first. Items are aggregated in the same grouped query,
+     * so a report over any range costs one query instead of one item query per invoice.
+     *
+     * @param filter Optional date range, customer and payment status conditions.
+     * @param action Called once per invoice, ordered by (InvoiceDate, InvoiceID).
+     * @return The number of invoices processed.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int forEachInvoiceSummary(InvoiceFilter filter, Consumer<? super InvoiceSummary> action)
+            throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT i.InvoiceID, i.InvoiceDate, i.TotalAmount, i.PaymentStatus, "
+              + "COUNT(ii.InvoiceItemID) AS ItemCount, COALESCE(SUM(ii.Quantity), 0) AS TotalQuantity "
+              + "FROM Invoices i LEFT JOIN InvoiceItems ii ON ii.InvoiceID = i.InvoiceID");
+        List<Object> params = new ArrayList<>();
+        appendPageConditions(sql, params, "i.", null, filter);
+        sql.append(" GROUP BY i.InvoiceID, i.InvoiceDate, i.TotalAmount, i.PaymentStatus")
+           .append(" ORDER BY i.InvoiceDate, i.InvoiceID");
+
+        return StreamingQuery.forEach(sql.toString(), params, this::mapSummary, action);
+    }
+
+    /**
+     * Counts and totals the invoices matching the filter in one aggregate query.
+     *
+     * @param filter Optional date range, customer and payment status conditions.
+     * @return Invoice count and sum of TotalAmount (zero when nothing matches).
+     * @throws SQLException if a database access error occurs.
+     */
+    public SalesTotals getSalesTotals(InvoiceFilter filter) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT COUNT(*) AS InvoiceCount, COALESCE(SUM(TotalAmount), 0) AS TotalAmount FROM Invoices");
+        List<Object> params = new ArrayList<>();
+        appendPageConditions(sql, params, "", null, filter);
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            bindParams(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return new SalesTotals(rs.getInt("InvoiceCount"), rs.getBigDecimal("TotalAmount"));
+            }
+        }
+    }
+
+    private InvoiceSummary mapSummary(ResultSet rs) throws SQLException {
+        return new InvoiceSummary(
+                rs.getInt("InvoiceID"),
+                rs.getDate("InvoiceDate").toLocalDate(),
+                rs.getBigDecimal("TotalAmount"),
+                rs.getString("PaymentStatus"),
+                rs.getInt("ItemCount"),
+                rs.getInt("TotalQuantity"));
+    }
+
+    /**
+     * Streams every invoice matching the filter, oldest first, to the action without
+     * holding the whole result in memory. Meant for exports and reports over large
+     * ranges; the connection stays open until the last row has been handled.
+     *
+     * @param filter Optional date range, customer and payment status conditions.
+     * @param action Called once per invoice, ordered by (InvoiceDate, InvoiceID).
+     * @return The number of invoices processed.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int forEachInvoice(InvoiceFilter filter, Consumer<? super Invoice> action) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT InvoiceID, InvoiceDate, TotalAmount, DiscountPercentage, TaxAmount, PaymentStatus FROM Invoices");
+        List<Object> params = new ArrayList<>();
+        appendPageConditions(sql, params, "", null, filter);
+        sql.append(" ORDER BY InvoiceDate, InvoiceID");
+
+        return StreamingQuery.forEach(sql.toString(), params, rs -> {
+            Invoice invoice = new Invoice(rs.getInt("InvoiceID"), rs.getDate("InvoiceDate").toLocalDate(),
+                    rs.getBigDecimal("TotalAmount"));
+            invoice.setDiscountPercentage(rs.getDouble("DiscountPercentage"));
+            invoice.setTaxAmount(rs.getDouble("TaxAmount"));
+            invoice.setPaymentStatus(rs.getString("PaymentStatus"));
+            return invoice;
+        }, action);
+    }
+
+    /**
+     * Appends the WHERE clause for a page: the filter conditions plus the keyset condition
+     * "strictly older than the cursor". The OR form is used instead of a row-value
+     * comparison because MySQL only uses the index range for the former.
+     *
+     * @param alias Table alias prefix for Invoices columns, e.g. "i." or "".
+     */
+    static void appendPageConditions(StringBuilder sql, List<Object> params, String alias,
+                                     InvoiceCursor cursor, InvoiceFilter filter) {
+        List<String> conditions = new ArrayList<>();
+        if (filter != null) {
+            if (filter.getFromDate() != null) {
+                conditions.add(alias + "InvoiceDate >= ?");
+                params.add(Date.valueOf(filter.getFromDate()));
+            }
+            if (filter.getToDate() != null) {
+                conditions.add(alias + "InvoiceDate <= ?");
+                params.add(Date.valueOf(filter.getToDate()));
+            }
+            if (filter.getCustomerID() != null) {
+                conditions.add(alias + "CustomerID = ?");
+                params.add(filter.getCustomerID());
+            }
+            if (filter.getPaymentStatus() != null) {
+                conditions.add(alias + "PaymentStatus = ?");
+                params.add(filter.getPaymentStatus());
+            }
+        }
+        if (cursor != null) {
+            Date cursorDate = Date.valueOf(cursor.getInvoiceDate());
+            conditions.add("(" + alias + "InvoiceDate < ? OR (" + alias + "InvoiceDate = ? AND " + alias + "InvoiceID < ?))");
+            params.add(cursorDate);
+            params.add(cursorDate);
+            params.add(cursor.getInvoiceID());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    static void bindParams(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    /**
+     * Trims the extra look-ahead row and derives the next cursor from the last row kept.
+     */
+    static <T> InvoicePage<T> toPage(List<T> rows, int pageSize, Function<T, InvoiceCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new InvoicePage<>(rows, null);
+        }
+        List<T> page = new ArrayList<>(rows.subList(0, pageSize));
+        return new InvoicePage<>(page, cursorOf.apply(page.get(pageSize - 1)));
+    }
     
     /**
      * Saves an invoice using an existing connection (for transaction support).
      * Does NOT commit or close the connection - caller is responsible.
      *
+     * When invoice.id.allocator.enabled is set, the InvoiceID comes from
+     * {@link InvoiceIdAllocator} and is inserted explicitly, so no generated-keys
+     * round trip is needed. Otherwise the AUTO_INCREMENT value is read back.
+     *
      * @param invoice The Invoice object to save.
      * @param conn The existing database connection.
-     * @return The auto-generated InvoiceID from the database, or -1 if saving failed.
+     * @return The InvoiceID of the new row, or -1 if saving failed.
      * @throws SQLException if a database access error occurs.
      */
     public int saveInvoice(Invoice invoice, Connection conn) throws SQLException {
-        String sql = "INSERT INTO Invoices (InvoiceDate, TotalAmount) VALUES (?, ?)";
+        if (InvoiceIdAllocator.isEnabled()) {
+            int invoiceId = InvoiceIdAllocator.getInstance().nextId();
+            String sql = "INSERT INTO Invoices (InvoiceID, InvoiceDate, TotalAmount, DiscountPercentage, TaxAmount, "
+                       + "PaymentStatus, CustomerID, UserID) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, invoiceId);
+                bindInvoiceColumns(pstmt, 2, invoice);
+                return pstmt.executeUpdate() > 0 ? invoiceId : -1;
+            }
+        }
+
+        String sql = "INSERT INTO Invoices (InvoiceDate, TotalAmount, DiscountPercentage, TaxAmount, "
+                   + "PaymentStatus, CustomerID, UserID) VALUES (?, ?, ?, ?, ?, ?, ?)";
         int generatedInvoiceId = -1;
 
         try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setDate(1, Date.valueOf(invoice.getInvoiceDate()));
-            pstmt.setBigDecimal(2, invoice.getTotalAmount());
+            bindInvoiceColumns(pstmt, 1, invoice);
 
             int rowsAffected = pstmt.executeUpdate();
 
@@ -186,5 +430,27 @@ public class InvoiceDAO {
         }
         return generatedInvoiceId;
     }
-}
 
+    /**
+     * Binds InvoiceDate, TotalAmount, DiscountPercentage, TaxAmount, PaymentStatus,
+     * CustomerID and UserID starting at the given parameter index.
+     */
+    private void bindInvoiceColumns(PreparedStatement pstmt, int index, Invoice invoice) throws SQLException {
+        pstmt.setDate(index, Date.valueOf(invoice.getInvoiceDate()));
+        pstmt.setBigDecimal(index + 1, invoice.getTotalAmount());
+        pstmt.setDouble(index + 2, invoice.getDiscountPercentage());
+        pstmt.setDouble(index + 3, invoice.getTaxAmount());
+        // Same as the column default when the caller hasn't set a status
+        pstmt.setString(index + 4, invoice.getPaymentStatus() != null ? invoice.getPaymentStatus() : "PAID");
+        setNullableInt(pstmt, index + 5, invoice.getCustomerID());
+        setNullableInt(pstmt, index + 6, invoice.getUserID());
+    }
+
+    private void setNullableInt(PreparedStatement pstmt, int index, Integer value) throws SQLException {
+        if (value != null) {
+            pstmt.setInt(index, value);
+        } else {
+            pstmt.setNull(index, Types.INTEGER);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.dao;
+
+import java.time.LocalDate;
+
+/**
+ * Optional conditions for paged invoice queries. Unset fields don't filter.
+ */
+public class InvoiceFilter {
+
+    /** Matches every invoice. */
+    public static final InvoiceFilter NONE = new Builder().build();
+
+    private LocalDate fromDate;     // inclusive
+    private LocalDate toDate;       // inclusive
+    private Integer customerID;
+    private String paymentStatus;
+
+    private InvoiceFilter() {
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public Integer getCustomerID() {
+        return customerID;
+    }
+
+    public String getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "InvoiceFilter [fromDate=" + fromDate + ", toDate=" + toDate + ", customerID=" + customerID
+                + ", paymentStatus=" + paymentStatus + "]";
+    }
+
+    /**
+     * Builder pattern for InvoiceFilter
+     */
+    public static class Builder {
+        private final InvoiceFilter filter = new InvoiceFilter();
+
+        public Builder fromDate(LocalDate fromDate) {
+            filter.fromDate = fromDate;
+            return this;
+        }
+
+        public Builder toDate(LocalDate toDate) {
+            filter.toDate = toDate;
+            return this;
+        }
+
+        public Builder customerID(Integer customerID) {
+            filter.customerID = customerID;
+            return this;
+        }
+
+        public Builder paymentStatus(String paymentStatus) {
+            filter.paymentStatus = paymentStatus;
+            return this;
+        }
+
+        public InvoiceFilter build() {
+            return filter;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.dao;
+
+import com.yourcompany.invoicesystem.config.ConfigManager;
+import com.yourcompany.invoicesystem.util.DBUtil;
+import com.yourcompany.invoicesystem.util.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hi/lo allocator for InvoiceIDs.
+ *
+ * Instead of relying on AUTO_INCREMENT and getGeneratedKeys(), each process
+ * reserves a block of IDs from the InvoiceSequence table with a single
+ * UPDATE and hands them out from memory. The next block is reserved in the
+ * background once half of the current one is used, on a dedicated auto-commit
+ * connection outside the pool, so a checkout never borrows a second pooled
+ * connection for it and a block is durable before any ID from it is used.
+ * IDs are never reused after a restart (unused ones are simply skipped), and
+ * any number of register processes can share the database because the
+ * UPDATE serializes them on the sequence row.
+ *
+ * Enable with invoice.id.allocator.enabled=true once database_updates.sql has
+ * created InvoiceSequence. All invoice inserts must then go through
+ * InvoiceDAO so that AUTO_INCREMENT never hands out an ID inside a reserved block.
+ */
+public class InvoiceIdAllocator {
+
+    private static final String SEQUENCE_NAME = "Invoices";
+    private static final long RESERVE_TIMEOUT_SECONDS = 30;
+
+    private static volatile InvoiceIdAllocator instance;
+
+    private final int blockSize;
+    private volatile Block current = new Block(0, 0);
+    private Future<Block> nextBlock;   // guarded by this
+    private final ExecutorService reserver = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "invoice-id-reserve");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @return true if invoice.id.allocator.enabled is set in config.properties
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getBoolean("invoice.id.allocator.enabled", false);
+    }
+
+    public static InvoiceIdAllocator getInstance() {
+        if (instance == null) {
+            synchronized (InvoiceIdAllocator.class) {
+                if (instance == null) {
+                    instance = new InvoiceIdAllocator(ConfigManager.getInt("invoice.id.block.size", 50));
+                }
+            }
+        }
+        return instance;
+    }
+
+    InvoiceIdAllocator(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Invoice ID block size must be at least 1: " + blockSize);
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Get the next InvoiceID, reserving a new block from the database when the current one is used up.
+     *
+     * @return A unique InvoiceID
+     * @throws SQLException if a new block cannot be reserved
+     */
+    public int nextId() throws SQLException {
+        while (true) {
+            Block block = current;
+            long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                if (id == block.refillAt) {
+                    prefetch(); // exactly one caller takes this ID
+                }
+                if (id > Integer.MAX_VALUE) {
+                    throw new SQLException("InvoiceID sequence exhausted: " + id);
+                }
+                return (int) id;
+            }
+            synchronized (this) {
+                if (current == block) {
+                    current = takeNextBlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Start reserving the next block in the background, unless that is already under way.
+     */
+    private synchronized void prefetch() {
+        if (nextBlock == null) {
+            nextBlock = reserver.submit(this::reserveBlock);
+        }
+    }
+
+    /**
+     * The prefetched block, waiting for it if it isn't reserved yet. Caller holds the lock.
+     * Waiting doesn't hold a pooled connection beyond the caller's own.
+     */
+    private Block takeNextBlock() throws SQLException {
+        prefetch();
+        Future<Block> pending = nextBlock;
+        nextBlock = null; // a failed reservation is retried by the next caller
+        try {
+            return pending.get(RESERVE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while reserving InvoiceID block", e);
+        } catch (TimeoutException e) {
+            pending.cancel(true);
+            throw new SQLException("Timed out reserving InvoiceID block", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Failed to reserve InvoiceID block: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Reserve the next block [end - blockSize, end) in one statement, on the reserve thread.
+     * LAST_INSERT_ID(expr) makes the new value readable on this connection without a second lock.
+     */
+    private Block reserveBlock() throws SQLException {
+        String updateSql = "UPDATE InvoiceSequence SET NextValue = LAST_INSERT_ID(NextValue + ?) WHERE SequenceName = ?";
+
+        try (Connection conn = DBUtil.getUnpooledConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
+                pstmt.setInt(1, blockSize);
+                pstmt.setString(2, SEQUENCE_NAME);
+                if (pstmt.executeUpdate() == 0) {
+                    seedSequence(conn);
+                    if (pstmt.executeUpdate() == 0) {
+                        throw new SQLException("InvoiceSequence row '" + SEQUENCE_NAME + "' is missing");
+                    }
+                }
+            }
+
+            long end;
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT LAST_INSERT_ID()");
+                 ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Could not read reserved InvoiceID block");
+                }
+                end = rs.getLong(1);
+            }
+
+            Logger.debug("Reserved InvoiceID block " + (end - blockSize) + "-" + (end - 1));
+            return new Block(end - blockSize, end);
+        }
+    }
+
+    /**
+     * Insert the Invoices row of InvoiceSequence if it is missing, starting after the
+     * highest existing invoice. Only the row is seeded: the table itself must already
+     * exist, so database_updates.sql has to have been run.
+     */
+    private void seedSequence(Connection conn) throws SQLException {
+        String seedSql = "INSERT IGNORE INTO InvoiceSequence (SequenceName, NextValue) "
+                       + "SELECT ?, COALESCE(MAX(InvoiceID), 0) + 1 FROM Invoices";
+        try (PreparedStatement pstmt = conn.prepareStatement(seedSql)) {
+            pstmt.setString(1, SEQUENCE_NAME);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * A reserved range of IDs; next is handed out lock-free until it reaches end.
+     * Handing out refillAt (the middle of the block) starts reserving the next one.
+     */
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+        private final long refillAt;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+            this.refillAt = start + (end - start) / 2;
+        }
+    }
+}
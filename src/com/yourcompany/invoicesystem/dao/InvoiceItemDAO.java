@@ -9,16 +9,25 @@ package com.yourcompany.invoicesystem.dao; // Ensure this matches your package n
 import com.yourcompany.invoicesystem.model.InvoiceItem; // Import the InvoiceItem model
 import com.yourcompany.invoicesystem.util.DBUtil;      // Import the DB utility
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.math.BigDecimal; // Needed for price
 
 public class InvoiceItemDAO {
 
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO InvoiceItems (InvoiceID, ProductID, Quantity, PriceAtSale) VALUES (?, ?, ?, ?)";
+
+    // Rows per executeBatch() call; keeps multi-row INSERTs well under max_allowed_packet
+    private static final int BATCH_CHUNK_SIZE = 500;
+
     /**
      * Saves a single invoice item to the database.
      * Assumes InvoiceItemID is auto-incrementing in the DB (optional to retrieve).
@@ -83,58 +92,210 @@ public class InvoiceItemDAO {
         return items;
     }
 
-    // Optional: Method to save multiple items at once (more efficient)
     /**
-     * Saves a list of invoice items, typically for a single invoice.
-     * Consider using batch updates for better performance with large lists.
+     * Retrieves all items of an invoice with their product names, in one joined query.
+     * Items whose product has since been deleted get a null product name.
+     *
+     * @param invoiceId The ID of the invoice whose items are to be retrieved.
+     * @return A List of InvoiceItem objects with productName set, in line order.
+     */
+    public List<InvoiceItem> getInvoiceItemsWithProductNames(int invoiceId) {
+        List<InvoiceItem> items = new ArrayList<>();
+        String sql = "SELECT ii.InvoiceItemID, ii.ProductID, ii.Quantity, ii.PriceAtSale, p.Name AS ProductName "
+                   + "FROM InvoiceItems ii LEFT JOIN Products p ON p.ProductID = ii.ProductID "
+                   + "WHERE ii.InvoiceID = ? ORDER BY ii.InvoiceItemID";
+
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, invoiceId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    InvoiceItem item = new InvoiceItem(rs.getInt("InvoiceItemID"), invoiceId, rs.getInt("ProductID"),
+                            rs.getInt("Quantity"), rs.getBigDecimal("PriceAtSale"));
+                    item.setProductName(rs.getString("ProductName"));
+                    items.add(item);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error fetching items for invoice ID " + invoiceId + ": " + e.getMessage());
+        }
+        return items;
+    }
+
+    /**
+     * Streams the items of every invoice matching the filter to the action, ordered by
+     * invoice and line, without holding the whole result in memory.
+     *
+     * @param filter Conditions on the owning invoice (date range, customer, payment status).
+     * @param action Called once per item.
+     * @return The number of items processed.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int forEachInvoiceItem(InvoiceFilter filter, Consumer<? super InvoiceItem> action) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT ii.InvoiceItemID, ii.InvoiceID, ii.ProductID, ii.Quantity, ii.PriceAtSale "
+              + "FROM InvoiceItems ii JOIN Invoices i ON i.InvoiceID = ii.InvoiceID");
+        List<Object> params = new ArrayList<>();
+        InvoiceDAO.appendPageConditions(sql, params, "i.", null, filter);
+        sql.append(" ORDER BY i.InvoiceDate, ii.InvoiceID, ii.InvoiceItemID");
+
+        return StreamingQuery.forEach(sql.toString(), params, rs -> new InvoiceItem(rs.getInt("InvoiceItemID"),
+                rs.getInt("InvoiceID"), rs.getInt("ProductID"), rs.getInt("Quantity"), rs.getBigDecimal("PriceAtSale")),
+                action);
+    }
+
+    /**
+     * Receives one product's sales totals from {@link #forEachProductSales}.
+     */
+    @FunctionalInterface
+    public interface ProductSalesConsumer {
+        void accept(int productId, long quantity, long revenueCents);
+    }
+
+    /**
+     * Streams quantity and revenue per product over every invoice matching the filter,
+     * aggregated in SQL by one grouped query. Revenue is summed exactly from the
+     * DECIMAL prices and passed as cents, so callers can total it without BigDecimal.
+     *
+     * @param filter Conditions on the owning invoice (date range, customer, payment status).
+     * @param action Called once per product sold.
+     * @return The number of distinct products.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int forEachProductSales(InvoiceFilter filter, ProductSalesConsumer action) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT ii.ProductID, SUM(ii.Quantity) AS QuantitySold, "
+              + "CAST(SUM(ii.Quantity * ii.PriceAtSale) * 100 AS SIGNED) AS RevenueCents "
+              + "FROM InvoiceItems ii JOIN Invoices i ON i.InvoiceID = ii.InvoiceID");
+        List<Object> params = new ArrayList<>();
+        InvoiceDAO.appendPageConditions(sql, params, "i.", null, filter);
+        sql.append(" GROUP BY ii.ProductID");
+
+        return StreamingQuery.forEachRow(sql.toString(), params, rs -> action.accept(
+                rs.getInt("ProductID"), rs.getLong("QuantitySold"), rs.getLong("RevenueCents")));
+    }
+
+    /**
+     * Saves a list of invoice items in a single transaction using a JDBC batch.
      *
      * @param items The List of InvoiceItem objects to save. All items should belong to the same InvoiceID.
-     * @return true if all items were saved successfully (basic check), false otherwise.
+     * @return true if all items were saved successfully, false otherwise (nothing is saved).
      */
     public boolean saveInvoiceItems(List<InvoiceItem> items) {
-        // Simple implementation: save one by one.
-        // For performance with many items, look into JDBC Batch Updates.
-        boolean allSuccess = true;
-        for (InvoiceItem item : items) {
-            if (!saveInvoiceItem(item)) {
-                allSuccess = false;
-                System.err.println("Failed to save item for product ID: " + item.getProductID());
-                // Maybe stop or log more details
+        if (items.isEmpty()) {
+            return true;
+        }
+        try (Connection conn = DBUtil.getConnection(false)) {
+            try {
+                saveInvoiceItems(items, conn);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
+        } catch (SQLException e) {
+            System.err.println("Error saving invoice items: " + e.getMessage());
+            return false;
         }
-        return allSuccess;
-        /*
-        // --- Example structure for Batch Update (more complex) ---
-        String sql = "INSERT INTO InvoiceItems (InvoiceID, ProductID, Quantity, PriceAtSale) VALUES (?, ?, ?, ?)";
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    }
+
+    /**
+     * Saves a list of invoice items using an existing connection (for transaction support).
+     * Rows are sent with addBatch/executeBatch in chunks of {@value #BATCH_CHUNK_SIZE}; with
+     * rewriteBatchedStatements=true in db.url the MySQL driver turns each chunk into one
+     * multi-row INSERT. Generated InvoiceItemIDs are set on the items.
+     * Does NOT commit or close the connection - caller is responsible.
+     *
+     * @param items The items to save, in bill order.
+     * @param conn The existing database connection.
+     * @return The generated InvoiceItemIDs, in the same order as items.
+     * @throws SQLException if any row fails; the message names the failing line(s) and product ID(s).
+     */
+    public int[] saveInvoiceItems(List<InvoiceItem> items, Connection conn) throws SQLException {
+        int[] generatedIds = new int[items.size()];
+
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_ITEM_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (int start = 0; start < items.size(); start += BATCH_CHUNK_SIZE) {
+                int end = Math.min(start + BATCH_CHUNK_SIZE, items.size());
+                for (int i = start; i < end; i++) {
+                    InvoiceItem item = items.get(i);
+                    pstmt.setInt(1, item.getInvoiceID());
+                    pstmt.setInt(2, item.getProductID());
+                    pstmt.setInt(3, item.getQuantity());
+                    pstmt.setBigDecimal(4, item.getPriceAtSale());
+                    pstmt.addBatch();
+                }
 
-            conn.setAutoCommit(false); // Start transaction
+                int[] updateCounts;
+                try {
+                    updateCounts = pstmt.executeBatch();
+                } catch (BatchUpdateException e) {
+                    throw describeBatchFailure(items, start, end, e);
+                }
+                for (int i = 0; i < updateCounts.length; i++) {
+                    if (updateCounts[i] == 0 || updateCounts[i] == Statement.EXECUTE_FAILED) {
+                        InvoiceItem item = items.get(start + i);
+                        throw new SQLException("Failed to save invoice item at line " + (start + i + 1)
+                                + " for product ID: " + item.getProductID());
+                    }
+                }
 
-            for (InvoiceItem item : items) {
-                pstmt.setInt(1, item.getInvoiceID());
-                pstmt.setInt(2, item.getProductID());
-                pstmt.setInt(3, item.getQuantity());
-                pstmt.setBigDecimal(4, item.getPriceAtSale());
-                pstmt.addBatch(); // Add statement to batch
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    int i = start;
+                    while (i < end && keys.next()) {
+                        int itemId = keys.getInt(1);
+                        generatedIds[i] = itemId;
+                        items.get(i).setInvoiceItemID(itemId);
+                        i++;
+                    }
+                }
             }
+        }
+        return generatedIds;
+    }
 
-            int[] results = pstmt.executeBatch(); // Execute all batched statements
-            conn.commit(); // Commit transaction
-            // Check results array for errors if needed
-            return true; // Simplified success check
+    /**
+     * Turn a BatchUpdateException into a message naming the rows that failed.
+     * Drivers either stop at the first failure (fewer update counts than rows) or
+     * continue and mark failures with EXECUTE_FAILED; both are handled.
+     */
+    private SQLException describeBatchFailure(List<InvoiceItem> items, int start, int end, BatchUpdateException e) {
+        int[] updateCounts = e.getUpdateCounts() != null ? e.getUpdateCounts() : new int[0];
+        List<Integer> failedRows = new ArrayList<>();
+        if (updateCounts.length < end - start) {
+            failedRows.add(start + updateCounts.length);
+        } else {
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                    failedRows.add(start + i);
+                }
+            }
+        }
 
-        } catch (SQLException e) {
-             // Handle potential BatchUpdateException, rollback transaction etc.
-             System.err.println("Error saving invoice items in batch: " + e.getMessage());
-             // Rollback conn.rollback();
-             return false;
-        } finally {
-            // Reset auto-commit conn.setAutoCommit(true);
+        StringBuilder message = new StringBuilder("Failed to save invoice items");
+        if (failedRows.isEmpty()) {
+            message.append(" in lines ").append(start + 1).append("-").append(end);
+        } else {
+            message.append(" at ");
+            for (int i = 0; i < failedRows.size() && i < 10; i++) {
+                int row = failedRows.get(i);
+                if (i > 0) {
+                    message.append(", ");
+                }
+                message.append("line ").append(row + 1)
+                       .append(" (product ID ").append(items.get(row).getProductID()).append(")");
+            }
+            if (failedRows.size() > 10) {
+                message.append(" and ").append(failedRows.size() - 10).append(" more");
+            }
         }
-        */
+        message.append(": ").append(e.getMessage());
+        return new SQLException(message.toString(), e.getSQLState(), e.getErrorCode(), e);
     }
-    
+
     /**
      * Saves a single invoice item using an existing connection (for transaction support).
      * Does NOT commit or close the connection - caller is responsible.
@@ -144,9 +305,7 @@ public class InvoiceItemDAO {
      * @throws SQLException if a database access error occurs.
      */
     public void saveInvoiceItem(InvoiceItem item, Connection conn) throws SQLException {
-        String sql = "INSERT INTO InvoiceItems (InvoiceID, ProductID, Quantity, PriceAtSale) VALUES (?, ?, ?, ?)";
-
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_ITEM_SQL)) {
             pstmt.setInt(1, item.getInvoiceID());
             pstmt.setInt(2, item.getProductID());
             pstmt.setInt(3, item.getQuantity());
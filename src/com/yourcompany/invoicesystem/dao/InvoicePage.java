@@ -0,0 +1,41 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated invoice query.
+ *
+ * @param <T> Row type
+ */
+public final class InvoicePage<T> {
+
+    private final List<T> rows;
+    private final InvoiceCursor nextCursor;
+
+    public InvoicePage(List<T> rows, InvoiceCursor nextCursor) {
+        this.rows = Collections.unmodifiableList(rows);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getRows() {
+        return rows;
+    }
+
+    /**
+     * @return Cursor for the following page, or null if this is the last page
+     */
+    public InvoiceCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -6,6 +6,8 @@
 
 package com.yourcompany.invoicesystem.dao; // Ensure this matches your package name
 
+import com.yourcompany.invoicesystem.exception.InsufficientStockException;
+import com.yourcompany.invoicesystem.model.InvoiceItem;
 import com.yourcompany.invoicesystem.model.Product; // Import the Product model
 import com.yourcompany.invoicesystem.util.DBUtil;   // Import the DB utility
 
@@ -14,11 +16,21 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.math.BigDecimal; // Needed for price
 
 public class ProductDAO {
 
+    // IDs per IN (...) list; keeps statements small and under the server's placeholder limit
+    private static final int IN_LIST_CHUNK_SIZE = 1000;
+
     /**
      * Retrieves a list of all products from the database.
      *
@@ -26,12 +38,32 @@ public class ProductDAO {
      */
     public List<Product> getAllProducts() {
         List<Product> products = new ArrayList<>();
+
+        // Using try-with-resources for automatic closing of Connection
+        try (Connection conn = DBUtil.getConnection()) {
+            products = getAllProducts(conn);
+        } catch (SQLException e) {
+            System.err.println("Error fetching all products: " + e.getMessage());
+            // In a real application, log the exception properly
+            // e.printStackTrace();
+        }
+        return products;
+    }
+
+    /**
+     * Retrieves a list of all products using an existing connection.
+     * Unlike {@link #getAllProducts()}, errors are thrown rather than returned as an empty list.
+     *
+     * @param conn The existing database connection.
+     * @return A List of Product objects, ordered by name.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<Product> getAllProducts(Connection conn) throws SQLException {
+        List<Product> products = new ArrayList<>();
         // SQL query to select all products
-        String sql = "SELECT ProductID, Name, Price, Stock FROM Products ORDER BY Name";
+        String sql = "SELECT ProductID, Name, Price, Stock, Barcode, LowStockThreshold, Category FROM Products ORDER BY Name";
 
-        // Using try-with-resources for automatic closing of Connection, PreparedStatement, ResultSet
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
 
             // Iterate through the result set
@@ -41,12 +73,15 @@ public class ProductDAO {
                 String name = rs.getString("Name");
                 BigDecimal price = rs.getBigDecimal("Price");
                 int stock = rs.getInt("Stock");
-                products.add(new Product(id, name, price, stock)); // Assuming constructor exists
+                Product product = new Product(id, name, price, stock);
+                product.setBarcode(rs.getString("Barcode"));
+                int threshold = rs.getInt("LowStockThreshold");
+                if (!rs.wasNull()) {
+                    product.setLowStockThreshold(threshold);
+                }
+                product.setCategory(rs.getString("Category"));
+                products.add(product);
             }
-        } catch (SQLException e) {
-            System.err.println("Error fetching all products: " + e.getMessage());
-            // In a real application, log the exception properly
-            // e.printStackTrace();
         }
         return products;
     }
@@ -81,6 +116,62 @@ public class ProductDAO {
         return product;
     }
 
+    /**
+     * Retrieves several products with IN-list queries (one per {@value #IN_LIST_CHUNK_SIZE} IDs).
+     *
+     * @param productIds The IDs of the products to retrieve (duplicates are ignored).
+     * @return Products keyed by ProductID, in ProductID order. IDs that don't exist are absent;
+     *         the map is empty if a database error occurs.
+     */
+    public Map<Integer, Product> getProductsByIds(Collection<Integer> productIds) {
+        if (productIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        try (Connection conn = DBUtil.getConnection()) {
+            return getProductsByIds(productIds, conn);
+        } catch (SQLException e) {
+            System.err.println("Error fetching " + productIds.size() + " products: " + e.getMessage());
+            return new LinkedHashMap<>();
+        }
+    }
+
+    /**
+     * Retrieves several products with IN-list queries, using an existing connection.
+     * Does NOT commit or close the connection - caller is responsible.
+     *
+     * @param productIds The IDs of the products to retrieve (duplicates are ignored).
+     * @param conn The existing database connection.
+     * @return Products keyed by ProductID, in ProductID order. IDs that don't exist are absent.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Map<Integer, Product> getProductsByIds(Collection<Integer> productIds, Connection conn) throws SQLException {
+        Map<Integer, Product> products = new LinkedHashMap<>();
+        List<Integer> uniqueIds = new ArrayList<>(new TreeSet<>(productIds));
+
+        for (int start = 0; start < uniqueIds.size(); start += IN_LIST_CHUNK_SIZE) {
+            List<Integer> chunk = uniqueIds.subList(start, Math.min(start + IN_LIST_CHUNK_SIZE, uniqueIds.size()));
+            StringBuilder sql = new StringBuilder("SELECT ProductID, Name, Price, Stock FROM Products WHERE ProductID IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(") ORDER BY ProductID");
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                int param = 1;
+                for (Integer productId : chunk) {
+                    pstmt.setInt(param++, productId);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt("ProductID");
+                        products.put(id, new Product(id, rs.getString("Name"), rs.getBigDecimal("Price"), rs.getInt("Stock")));
+                    }
+                }
+            }
+        }
+        return products;
+    }
+
     /**
      * Adds a new product to the database.
      * Assumes ProductID is set manually or uses DB auto-increment if PK column is defined that way.
@@ -91,7 +182,7 @@ public class ProductDAO {
      */
     public boolean addProduct(Product product) {
         // Adjust SQL if using AUTO_INCREMENT/SERIAL for ProductID
-        String sql = "INSERT INTO Products (ProductID, Name, Price, Stock) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO Products (ProductID, Name, Price, Stock, Barcode) VALUES (?, ?, ?, ?, ?)";
         boolean success = false;
 
         try (Connection conn = DBUtil.getConnection();
@@ -101,6 +192,7 @@ public class ProductDAO {
             pstmt.setString(2, product.getName());
             pstmt.setBigDecimal(3, product.getPrice());
             pstmt.setInt(4, product.getStock());
+            pstmt.setString(5, product.getBarcode()); // NULL if the product has no barcode
 
             int rowsAffected = pstmt.executeUpdate();
             success = (rowsAffected > 0);
@@ -179,47 +271,114 @@ public class ProductDAO {
      }
      
      /**
-      * Thread-safe stock decrease using pessimistic locking within a transaction.
-      * Uses SELECT FOR UPDATE to lock the row and prevent concurrent modifications.
+      * Decreases the stock of a single product within a transaction.
+      * Delegates to {@link #reserveStock(Map, Connection)}.
       *
       * @param productId The ID of the product.
       * @param quantityToDecrease The amount to decrease the stock by.
       * @param conn The database connection with transaction started.
       * @return true if stock was decreased successfully.
-      * @throws SQLException if insufficient stock or database error occurs.
+      * @throws SQLException if insufficient stock (InsufficientStockException) or database error occurs.
       */
      public boolean decreaseProductStock(int productId, int quantityToDecrease, Connection conn) throws SQLException {
-         // Use SELECT FOR UPDATE to lock the row for this transaction
-         String selectSql = "SELECT Stock FROM Products WHERE ProductID = ? FOR UPDATE";
-         String updateSql = "UPDATE Products SET Stock = Stock - ? WHERE ProductID = ?";
-         
-         int currentStock;
-         try (PreparedStatement selectStmt = conn.prepareStatement(selectSql)) {
-             selectStmt.setInt(1, productId);
-             try (ResultSet rs = selectStmt.executeQuery()) {
-                 if (!rs.next()) {
-                     throw new SQLException("Product not found with ID: " + productId);
+         reserveStock(Collections.singletonMap(productId, quantityToDecrease), conn);
+         return true;
+     }
+
+     /**
+      * Reserves stock for a whole basket within a transaction.
+      * Quantities for the same product are summed before reserving.
+      *
+      * @param items The invoice items being sold.
+      * @param conn The database connection with transaction started.
+      * @throws SQLException if any product is short (InsufficientStockException) or database error occurs.
+      */
+     public void reserveStock(List<InvoiceItem> items, Connection conn) throws SQLException {
+         Map<Integer, Integer> quantities = new HashMap<>();
+         for (InvoiceItem item : items) {
+             quantities.merge(item.getProductID(), item.getQuantity(), Integer::sum);
+         }
+         reserveStock(quantities, conn);
+     }
+
+     /**
+      * Reserves stock for several products within a transaction.
+      *
+      * Each row is decremented with one conditional UPDATE (no separate SELECT ... FOR UPDATE),
+      * sent as a single batch in ascending ProductID order. Because every checkout locks rows
+      * in the same order, two registers selling overlapping baskets cannot deadlock.
+      * If any row has too little stock, the shortages are looked up and reported together;
+      * the caller must roll back.
+      * Does NOT commit or close the connection - caller is responsible.
+      *
+      * @param quantities Quantity to take, keyed by ProductID.
+      * @param conn The database connection with transaction started.
+      * @throws InsufficientStockException listing every product that was short or missing.
+      * @throws SQLException if a database error occurs.
+      */
+     public void reserveStock(Map<Integer, Integer> quantities, Connection conn) throws SQLException {
+         if (quantities.isEmpty()) {
+             return;
+         }
+         // Sorted by ProductID so row locks are always taken in the same order
+         TreeMap<Integer, Integer> ordered = new TreeMap<>(quantities);
+         String updateSql = "UPDATE Products SET Stock = Stock - ? WHERE ProductID = ? AND Stock >= ?";
+
+         int[] updateCounts;
+         try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
+             for (Map.Entry<Integer, Integer> entry : ordered.entrySet()) {
+                 if (entry.getValue() <= 0) {
+                     throw new SQLException("Invalid quantity " + entry.getValue() + " for product ID: " + entry.getKey());
                  }
-                 currentStock = rs.getInt("Stock");
+                 updateStmt.setInt(1, entry.getValue());
+                 updateStmt.setInt(2, entry.getKey());
+                 updateStmt.setInt(3, entry.getValue());
+                 updateStmt.addBatch();
              }
+             updateCounts = updateStmt.executeBatch();
          }
-         
-         // Check if sufficient stock is available
-         if (currentStock < quantityToDecrease) {
-             throw new SQLException("Insufficient stock. Available: " + currentStock + ", Requested: " + quantityToDecrease);
+
+         Map<Integer, Integer> shortRequests = new TreeMap<>();
+         int index = 0;
+         for (Map.Entry<Integer, Integer> entry : ordered.entrySet()) {
+             if (updateCounts[index++] == 0) {
+                 shortRequests.put(entry.getKey(), entry.getValue());
+             }
          }
-         
-         // Update the stock
-         try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
-             updateStmt.setInt(1, quantityToDecrease);
-             updateStmt.setInt(2, productId);
-             int rowsAffected = updateStmt.executeUpdate();
-             if (rowsAffected == 0) {
-                 throw new SQLException("Failed to update stock for product ID: " + productId);
+         if (!shortRequests.isEmpty()) {
+             throw new InsufficientStockException(findShortages(shortRequests, conn));
+         }
+     }
+
+     /**
+      * Look up current stock for products whose reservation failed.
+      */
+     private Map<Integer, InsufficientStockException.Shortage> findShortages(Map<Integer, Integer> shortRequests,
+                                                                           Connection conn) throws SQLException {
+         StringBuilder sql = new StringBuilder("SELECT ProductID, Name, Stock FROM Products WHERE ProductID IN (");
+         for (int i = 0; i < shortRequests.size(); i++) {
+             sql.append(i == 0 ? "?" : ", ?");
+         }
+         sql.append(")");
+
+         Map<Integer, InsufficientStockException.Shortage> shortages = new TreeMap<>();
+         try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+             int param = 1;
+             for (Integer productId : shortRequests.keySet()) {
+                 pstmt.setInt(param++, productId);
+             }
+             try (ResultSet rs = pstmt.executeQuery()) {
+                 while (rs.next()) {
+                     int productId = rs.getInt("ProductID");
+                     shortages.put(productId, new InsufficientStockException.Shortage(
+                             rs.getString("Name"), shortRequests.get(productId), rs.getInt("Stock")));
+                 }
              }
          }
-         
-         return true;
+         for (Map.Entry<Integer, Integer> entry : shortRequests.entrySet()) {
+             shortages.putIfAbsent(entry.getKey(), new InsufficientStockException.Shortage(null, entry.getValue(), -1));
+         }
+         return shortages;
      }
 
     // --- Other potential methods ---
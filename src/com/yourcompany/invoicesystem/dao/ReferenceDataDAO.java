@@ -0,0 +1,83 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.dao;
+
+import com.yourcompany.invoicesystem.model.PaymentMethod;
+import com.yourcompany.invoicesystem.model.TaxRate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the small, rarely-changing lookup tables (PaymentMethods,
+ * TaxConfiguration, SystemSettings). Used by the ReferenceDataCache;
+ * other code should read reference data through the cache.
+ */
+public class ReferenceDataDAO {
+    
+    /**
+     * Load all payment methods, active and inactive, ordered by name.
+     */
+    public List<PaymentMethod> loadPaymentMethods(Connection conn) throws SQLException {
+        List<PaymentMethod> methods = new ArrayList<>();
+        String sql = "SELECT PaymentMethodID, MethodName, IsActive FROM PaymentMethods ORDER BY MethodName";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                methods.add(new PaymentMethod(
+                    rs.getInt("PaymentMethodID"),
+                    rs.getString("MethodName"),
+                    rs.getBoolean("IsActive")));
+            }
+        }
+        return methods;
+    }
+    
+    /**
+     * Load all tax rates, active and inactive, ordered by ID.
+     */
+    public List<TaxRate> loadTaxRates(Connection conn) throws SQLException {
+        List<TaxRate> rates = new ArrayList<>();
+        String sql = "SELECT TaxID, TaxName, TaxRate, IsActive, AppliedBy FROM TaxConfiguration ORDER BY TaxID";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                rates.add(new TaxRate(
+                    rs.getInt("TaxID"),
+                    rs.getString("TaxName"),
+                    rs.getBigDecimal("TaxRate"),
+                    rs.getBoolean("IsActive"),
+                    rs.getString("AppliedBy")));
+            }
+        }
+        return rates;
+    }
+    
+    /**
+     * Load all system settings as key/value pairs.
+     */
+    public Map<String, String> loadSystemSettings(Connection conn) throws SQLException {
+        Map<String, String> settings = new LinkedHashMap<>();
+        String sql = "SELECT SettingKey, SettingValue FROM SystemSettings";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                settings.put(rs.getString("SettingKey"), rs.getString("SettingValue"));
+            }
+        }
+        return settings;
+    }
+}
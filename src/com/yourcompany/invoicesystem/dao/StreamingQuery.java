@@ -0,0 +1,85 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.dao;
+
+import com.yourcompany.invoicesystem.util.DBUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Runs a query whose rows are handed to a callback one at a time while the
+ * driver streams them, instead of being collected into a List (and, with
+ * Connector/J's default, buffered in full by the driver first). Memory use
+ * stays constant however many rows the query returns.
+ *
+ * The connection is held until the last row is processed and is always closed,
+ * also when the callback throws. Callbacks must not use the same connection;
+ * other DAO calls borrow their own from the pool.
+ */
+final class StreamingQuery {
+
+    /**
+     * Maps the current row of a result set.
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Consumes the current row of a result set in place, for callers that
+     * aggregate rows without creating an object per row.
+     */
+    @FunctionalInterface
+    interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    private StreamingQuery() {
+    }
+
+    /**
+     * @param sql Query text
+     * @param params Positional parameters
+     * @param mapper Maps each row
+     * @param action Called for each mapped row, in result order
+     * @return Number of rows processed
+     * @throws SQLException if a database access error occurs
+     */
+    static <T> int forEach(String sql, List<Object> params, RowMapper<T> mapper, Consumer<? super T> action)
+            throws SQLException {
+        return forEachRow(sql, params, rs -> action.accept(mapper.map(rs)));
+    }
+
+    /**
+     * @param sql Query text
+     * @param params Positional parameters
+     * @param handler Called for each row, in result order
+     * @return Number of rows processed
+     * @throws SQLException if a database access error occurs
+     */
+    static int forEachRow(String sql, List<Object> params, RowHandler handler) throws SQLException {
+        int rows = 0;
+        try (Connection conn = DBUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            DBUtil.enableStreaming(pstmt);
+            InvoiceDAO.bindParams(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs);
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+}
@@ -109,7 +109,7 @@ public class UserDAO {
                         user.setUserID(generatedKeys.getInt(1));
                     }
                 }
-                Logger.info("User created: " + user.getUsername());
+                Logger.info("User created: {}", user.getUsername());
                 return true;
             }
         } catch (SQLException e) {
@@ -134,7 +134,7 @@ public class UserDAO {
             
             int rowsAffected = pstmt.executeUpdate();
             if (rowsAffected > 0) {
-                Logger.info("User updated: " + user.getUsername());
+                Logger.info("User updated: {}", user.getUsername());
                 return true;
             }
         } catch (SQLException e) {
@@ -0,0 +1,59 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * An invoice, its items and its stock changes have been committed.
+ */
+public final class InvoiceCommitted implements SalesEvent {
+
+    private final long sequence = SalesEventBus.getInstance().nextSequence();
+    private final int invoiceID;
+    private final LocalDate invoiceDate;
+    private final BigDecimal totalAmount;
+    private final int units;
+
+    public InvoiceCommitted(int invoiceID, LocalDate invoiceDate, BigDecimal totalAmount, int units) {
+        this.invoiceID = invoiceID;
+        this.invoiceDate = invoiceDate;
+        this.totalAmount = totalAmount;
+        this.units = units;
+    }
+
+    public int getInvoiceID() {
+        return invoiceID;
+    }
+
+    public LocalDate getInvoiceDate() {
+        return invoiceDate;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    /**
+     * @return Units sold (sum of item quantities)
+     */
+    public int getUnits() {
+        return units;
+    }
+
+    @Override
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        return "InvoiceCommitted [invoiceID=" + invoiceID + ", invoiceDate=" + invoiceDate
+                + ", totalAmount=" + totalAmount + ", units=" + units + "]";
+    }
+}
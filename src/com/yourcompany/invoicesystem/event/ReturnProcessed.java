@@ -0,0 +1,59 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A return has been committed: refund recorded and stock restored.
+ */
+public final class ReturnProcessed implements SalesEvent {
+
+    private final long sequence = SalesEventBus.getInstance().nextSequence();
+    private final int invoiceID;
+    private final LocalDate returnDate;
+    private final BigDecimal refundAmount;
+    private final int units;
+
+    public ReturnProcessed(int invoiceID, LocalDate returnDate, BigDecimal refundAmount, int units) {
+        this.invoiceID = invoiceID;
+        this.returnDate = returnDate;
+        this.refundAmount = refundAmount;
+        this.units = units;
+    }
+
+    /**
+     * @return The original invoice the items were returned from
+     */
+    public int getInvoiceID() {
+        return invoiceID;
+    }
+
+    public LocalDate getReturnDate() {
+        return returnDate;
+    }
+
+    public BigDecimal getRefundAmount() {
+        return refundAmount;
+    }
+
+    public int getUnits() {
+        return units;
+    }
+
+    @Override
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        return "ReturnProcessed [invoiceID=" + invoiceID + ", returnDate=" + returnDate
+                + ", refundAmount=" + refundAmount + ", units=" + units + "]";
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.event;
+
+/**
+ * Event published on the {@link SalesEventBus} after a change has been committed.
+ */
+public interface SalesEvent {
+
+    /**
+     * @return Position in the order events were created, see {@link SalesEventBus#getLastSequence()}
+     */
+    long getSequence();
+}
@@ -0,0 +1,154 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.event;
+
+import com.yourcompany.invoicesystem.util.Logger;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus for sales events, so open windows can follow checkouts, returns
+ * and stock changes made anywhere in the application without re-querying the database.
+ *
+ * Events are published after the transaction commits, from any thread. Listeners
+ * run on the Event Dispatch Thread and receive every event queued since their last
+ * call as one list: a burst of checkouts costs one repaint, not one per invoice.
+ */
+public class SalesEventBus {
+
+    private static final SalesEventBus instance = new SalesEventBus();
+
+    private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private int commitsInProgress = 0;   // guarded by this
+
+    private SalesEventBus() {
+    }
+
+    public static SalesEventBus getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return Sequence of the most recently created event
+     */
+    public long getLastSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Mark the start of a transaction whose commit publishes events. Call
+     * {@link #endCommit()} in a finally block once its events are published or
+     * the transaction is rolled back.
+     */
+    public synchronized void beginCommit() {
+        commitsInProgress++;
+    }
+
+    public synchronized void endCommit() {
+        commitsInProgress--;
+    }
+
+    /**
+     * For listeners that also load from the database. Take it before and after the
+     * read: if both calls return the same value and it isn't -1, nothing was
+     * committed during the read, so events up to that sequence are in the data read
+     * and later ones are not. Otherwise a commit overlapped the read and some events
+     * may or may not be in it.
+     *
+     * @return Sequence of the most recently created event, or -1 while a commit is in progress
+     */
+    public synchronized long getSettledSequence() {
+        return commitsInProgress > 0 ? -1 : sequence.get();
+    }
+
+    long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * Listen for events of one type. Close the returned subscription when the
+     * listener goes away (e.g. in the window's dispose()).
+     *
+     * @param type Event class to receive
+     * @param listener Called on the EDT with the events queued since its last call, in publish order
+     * @return The subscription
+     */
+    public <E extends SalesEvent> Subscription<E> subscribe(Class<E> type, Consumer<List<E>> listener) {
+        Subscription<E> subscription = new Subscription<>(type, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Publish a committed change to every subscriber of its type. Never blocks on listeners.
+     */
+    public void publish(SalesEvent event) {
+        for (Subscription<?> subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    /**
+     * One listener and the events waiting for it.
+     */
+    public final class Subscription<E extends SalesEvent> implements AutoCloseable {
+        private final Class<E> type;
+        private final Consumer<List<E>> listener;
+        private final Queue<E> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+        private volatile boolean closed = false;
+
+        private Subscription(Class<E> type, Consumer<List<E>> listener) {
+            this.type = type;
+            this.listener = listener;
+        }
+
+        private void offer(SalesEvent event) {
+            if (closed || !type.isInstance(event)) {
+                return;
+            }
+            pending.add(type.cast(event));
+            if (drainScheduled.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(this::drain);
+            }
+        }
+
+        private void drain() {
+            // Cleared first, so an event published while the listener runs schedules another drain
+            drainScheduled.set(false);
+            List<E> events = new ArrayList<>();
+            E event;
+            while ((event = pending.poll()) != null) {
+                events.add(event);
+            }
+            if (closed || events.isEmpty()) {
+                return;
+            }
+            try {
+                listener.accept(events);
+            } catch (RuntimeException e) {
+                Logger.error("Error in " + type.getSimpleName() + " listener: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+            pending.clear();
+        }
+    }
+}
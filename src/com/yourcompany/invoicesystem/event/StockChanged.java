@@ -0,0 +1,56 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.event;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The product catalog cache has a new snapshot: committed stock levels changed,
+ * or products were added, edited, removed or reloaded from the database.
+ */
+public final class StockChanged implements SalesEvent {
+
+    private final long sequence = SalesEventBus.getInstance().nextSequence();
+    private final Map<Integer, Integer> deltas;
+    private final int lowStockDelta;
+    private final int lowStockCount;
+
+    /**
+     * @param deltas Stock change keyed by ProductID (empty when the catalog was edited or reloaded)
+     * @param lowStockDelta Change in the number of products at or below their low-stock threshold
+     * @param lowStockCount Number of products at or below their low-stock threshold afterwards
+     */
+    public StockChanged(Map<Integer, Integer> deltas, int lowStockDelta, int lowStockCount) {
+        this.deltas = Collections.unmodifiableMap(deltas);
+        this.lowStockDelta = lowStockDelta;
+        this.lowStockCount = lowStockCount;
+    }
+
+    public Map<Integer, Integer> getDeltas() {
+        return deltas;
+    }
+
+    public int getLowStockDelta() {
+        return lowStockDelta;
+    }
+
+    public int getLowStockCount() {
+        return lowStockCount;
+    }
+
+    @Override
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        return "StockChanged [products=" + deltas.size() + ", lowStockDelta=" + lowStockDelta
+                + ", lowStockCount=" + lowStockCount + "]";
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.exception;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exception thrown when a stock reservation cannot be satisfied.
+ * Extends SQLException so it travels through the transactional DAO methods
+ * (which throw SQLException) and rolls back the caller's transaction.
+ */
+public class InsufficientStockException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<Integer, Shortage> shortages;
+
+    public InsufficientStockException(Map<Integer, Shortage> shortages) {
+        super(buildMessage(shortages));
+        this.shortages = Collections.unmodifiableMap(new TreeMap<>(shortages));
+    }
+
+    /**
+     * @return Shortages keyed by ProductID, in ProductID order
+     */
+    public Map<Integer, Shortage> getShortages() {
+        return shortages;
+    }
+
+    private static String buildMessage(Map<Integer, Shortage> shortages) {
+        StringBuilder message = new StringBuilder("Insufficient stock for ");
+        boolean first = true;
+        for (Map.Entry<Integer, Shortage> entry : new TreeMap<>(shortages).entrySet()) {
+            if (!first) {
+                message.append(", ");
+            }
+            first = false;
+            Shortage shortage = entry.getValue();
+            if (shortage.getProductName() != null) {
+                message.append(shortage.getProductName()).append(" (ID ").append(entry.getKey()).append(")");
+            } else {
+                message.append("product ID ").append(entry.getKey());
+            }
+            if (shortage.isProductMissing()) {
+                message.append(" - product not found");
+            } else {
+                message.append(" - Available: ").append(shortage.getAvailable())
+                       .append(", Requested: ").append(shortage.getRequested());
+            }
+        }
+        return message.toString();
+    }
+
+    /**
+     * Requested vs. available quantity for one product.
+     */
+    public static class Shortage {
+        private final String productName;
+        private final int requested;
+        private final int available;
+
+        /**
+         * @param productName Product name, or null if the product does not exist
+         * @param requested Quantity requested
+         * @param available Quantity in stock, or -1 if the product does not exist
+         */
+        public Shortage(String productName, int requested, int available) {
+            this.productName = productName;
+            this.requested = requested;
+            this.available = available;
+        }
+
+        public String getProductName() {
+            return productName;
+        }
+
+        public int getRequested() {
+            return requested;
+        }
+
+        public int getAvailable() {
+            return available;
+        }
+
+        public boolean isProductMissing() {
+            return available < 0;
+        }
+    }
+}
@@ -6,28 +6,62 @@
 
 package com.yourcompany.invoicesystem.gui;
 
+import com.yourcompany.invoicesystem.cache.ProductCatalogCache;
+import com.yourcompany.invoicesystem.config.ConfigManager;
+import com.yourcompany.invoicesystem.dao.DailySalesDAO;
 import com.yourcompany.invoicesystem.dao.InvoiceDAO;
-import com.yourcompany.invoicesystem.dao.ProductDAO;
+import com.yourcompany.invoicesystem.dao.InvoiceFilter;
+import com.yourcompany.invoicesystem.event.InvoiceCommitted;
+import com.yourcompany.invoicesystem.event.ReturnProcessed;
+import com.yourcompany.invoicesystem.event.SalesEvent;
+import com.yourcompany.invoicesystem.event.SalesEventBus;
+import com.yourcompany.invoicesystem.event.StockChanged;
 import com.yourcompany.invoicesystem.model.Invoice;
-import com.yourcompany.invoicesystem.model.Product;
 import com.yourcompany.invoicesystem.util.DBUtil;
+import com.yourcompany.invoicesystem.util.LogContext;
 import com.yourcompany.invoicesystem.util.Logger;
+import com.yourcompany.invoicesystem.util.SessionManager;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.sql.*;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.math.BigDecimal;
 import java.util.*;
-import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * Dashboard Dialog
  * Displays key performance indicators and analytics
  */
 public class DashboardDialog extends JDialog {
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("MMM dd");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd");
+    private static final int RECENT_INVOICES = 10;
+    private static final int TREND_DAYS = 7;
+    private static final int PANEL_TIMEOUT_SECONDS = ConfigManager.getInt("dashboard.panel.timeout.seconds", 10);
+    private static final int SETTLE_ATTEMPTS = 3;
+    
+    // Shared by all dashboards; one thread per panel so the four loads run side by side.
+    // A fixed pool, not virtual threads: those need Java 21 and the application supports Java 11.
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool(
+            Math.max(1, ConfigManager.getInt("dashboard.loader.threads", 4)), runnable -> {
+                Thread thread = new Thread(runnable, "dashboard-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+    
+    private final DailySalesDAO dailySalesDAO = new DailySalesDAO();
     
     // KPI Labels
     private JLabel todaySalesLabel;
@@ -40,9 +74,29 @@ public class DashboardDialog extends JDialog {
     private JTextArea topProductsArea;
     private JTextArea revenueTrendArea;
     
+    // Figures behind the widgets; only touched on the EDT so live updates and reloads don't race
+    private LocalDate loadedDay = LocalDate.now();
+    private BigDecimal todaySales = BigDecimal.ZERO;
+    private BigDecimal monthSales = BigDecimal.ZERO;
+    private int lowStockCount = 0;
+    private List<Invoice> recentInvoices = new ArrayList<>();
+    private Map<LocalDate, BigDecimal> revenueTrend = new LinkedHashMap<>();
+    // A panel showing a placeholder has no figures to apply live events to
+    private boolean kpisLoaded = false;
+    private boolean recentInvoicesLoaded = false;
+    private boolean revenueTrendLoaded = false;
+    
+    private final List<SalesEventBus.Subscription<?>> subscriptions = new ArrayList<>();
+    private int loadGeneration = 0;
+    // Live events received while panels are loading, replayed onto each panel's data
+    // unless the panel's load already saw them
+    private final List<SalesEvent> eventsDuringLoad = new ArrayList<>();
+    private int panelsLoading = 0;
+    
     public DashboardDialog(Frame parent) {
         super(parent, "Dashboard - Business Analytics", false);
         initComponents();
+        subscribeToSalesEvents();
         loadDashboardData();
         setSize(1000, 700);
         setLocationRelativeTo(parent);
@@ -105,6 +159,12 @@ public class DashboardDialog extends JDialog {
         refreshButton.addActionListener(e -> loadDashboardData());
         JButton closeButton = new JButton("Close");
         closeButton.addActionListener(e -> dispose());
+        if (SessionManager.getInstance().isManager()) {
+            JButton rebuildButton = new JButton("Rebuild Totals");
+            rebuildButton.setToolTipText("Recompute the daily sales totals from all invoices and returns");
+            rebuildButton.addActionListener(e -> rebuildDailySales(rebuildButton));
+            buttonPanel.add(rebuildButton);
+        }
         buttonPanel.add(refreshButton);
         buttonPanel.add(closeButton);
         add(buttonPanel, BorderLayout.SOUTH);
@@ -160,95 +220,340 @@ public class DashboardDialog extends JDialog {
         return card;
     }
     
+    private void subscribeToSalesEvents() {
+        SalesEventBus bus = SalesEventBus.getInstance();
+        subscriptions.add(bus.subscribe(InvoiceCommitted.class, this::onInvoicesCommitted));
+        subscriptions.add(bus.subscribe(ReturnProcessed.class, this::onReturnsProcessed));
+        subscriptions.add(bus.subscribe(StockChanged.class, this::onStockChanged));
+    }
+    
+    @Override
+    public void dispose() {
+        subscriptions.forEach(SalesEventBus.Subscription::close);
+        subscriptions.clear();
+        super.dispose();
+    }
+    
+    private void onInvoicesCommitted(List<InvoiceCommitted> events) {
+        if (reloadIfDayChanged()) {
+            return;
+        }
+        for (InvoiceCommitted event : events) {
+            recordDuringLoad(event);
+            if (kpisLoaded) {
+                addToTotals(event.getInvoiceDate(), event.getTotalAmount());
+            }
+            if (revenueTrendLoaded) {
+                addToTrend(event.getInvoiceDate(), event.getTotalAmount());
+            }
+            if (recentInvoicesLoaded) {
+                addToRecentInvoices(event);
+            }
+        }
+        if (kpisLoaded) {
+            renderSales();
+        }
+        if (recentInvoicesLoaded) {
+            renderRecentInvoices();
+        }
+        if (revenueTrendLoaded) {
+            renderRevenueTrend();
+        }
+    }
+    
+    private void onReturnsProcessed(List<ReturnProcessed> events) {
+        if (reloadIfDayChanged()) {
+            return;
+        }
+        for (ReturnProcessed event : events) {
+            recordDuringLoad(event);
+            if (kpisLoaded) {
+                addToTotals(event.getReturnDate(), event.getRefundAmount().negate());
+            }
+            if (revenueTrendLoaded) {
+                addToTrend(event.getReturnDate(), event.getRefundAmount().negate());
+            }
+        }
+        if (kpisLoaded) {
+            renderSales();
+        }
+        if (revenueTrendLoaded) {
+            renderRevenueTrend();
+        }
+    }
+    
+    private void onStockChanged(List<StockChanged> events) {
+        for (StockChanged event : events) {
+            recordDuringLoad(event);
+        }
+        if (kpisLoaded) {
+            // Each event carries a full recount, so only the latest matters
+            lowStockCount = events.get(events.size() - 1).getLowStockCount();
+            lowStockCountLabel.setText(String.valueOf(lowStockCount));
+        }
+    }
+    
+    private void recordDuringLoad(SalesEvent event) {
+        if (panelsLoading > 0) {
+            eventsDuringLoad.add(event);
+        }
+    }
+    
+    /**
+     * @return Events received during the load that it did not see, in the order they were published
+     */
+    private List<SalesEvent> eventsAfter(long sequence) {
+        List<SalesEvent> missed = new ArrayList<>();
+        for (SalesEvent event : eventsDuringLoad) {
+            if (event.getSequence() > sequence) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+    
+    // Same figures as the DailySales rollup: net sales booked on the day they happen
+    private void addToTotals(LocalDate day, BigDecimal amount) {
+        if (day.equals(loadedDay)) {
+            todaySales = todaySales.add(amount);
+        }
+        if (day.getYear() == loadedDay.getYear() && day.getMonth() == loadedDay.getMonth()) {
+            monthSales = monthSales.add(amount);
+        }
+    }
+    
+    private void addToTrend(LocalDate day, BigDecimal amount) {
+        if (!day.isBefore(loadedDay.minusDays(TREND_DAYS))) {
+            revenueTrend.merge(day, amount, BigDecimal::add);
+        }
+    }
+    
+    private void addToRecentInvoices(InvoiceCommitted event) {
+        recentInvoices.add(0, new Invoice(event.getInvoiceID(), event.getInvoiceDate(), event.getTotalAmount()));
+        if (recentInvoices.size() > RECENT_INVOICES) {
+            recentInvoices.subList(RECENT_INVOICES, recentInvoices.size()).clear();
+        }
+    }
+    
+    private boolean reloadIfDayChanged() {
+        if (LocalDate.now().equals(loadedDay)) {
+            return false;
+        }
+        loadDashboardData(); // "today" moved on; deltas would land in the wrong period
+        return true;
+    }
+    
+    /**
+     * Load every panel concurrently. Each panel is filled on the EDT as soon as its
+     * own query returns, so the dashboard waits for the slowest query, not the sum.
+     * A panel that fails or times out shows a placeholder; the others are unaffected.
+     *
+     * Live events keep updating the figures while the panels load. When a panel's
+     * data lands, the events its read already saw are dropped and only the later
+     * ones are replayed on top. That split is exact when no checkout or return was
+     * committing during the read (see {@link SalesEventBus#getSettledSequence()});
+     * a read that overlaps one is retried, and if all SETTLE_ATTEMPTS overlap, an
+     * event committed during the last read may be counted twice until the next refresh.
+     */
     private void loadDashboardData() {
-        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+        int generation = ++loadGeneration;
+        eventsDuringLoad.clear();
+        panelsLoading = 4;
+        loadPanel("KPIs", generation, true, this::fetchKPIs, this::applyKPIs, this::showKPIsUnavailable);
+        loadPanel("recent invoices", generation, true, this::fetchRecentInvoices, this::applyRecentInvoices,
+                this::showRecentInvoicesUnavailable);
+        loadPanel("top products", generation, false, this::fetchTopProducts,
+                (text, sequence) -> topProductsArea.setText(text), message -> topProductsArea.setText(message));
+        loadPanel("revenue trend", generation, true, this::fetchRevenueTrend, this::applyRevenueTrend,
+                this::showRevenueTrendUnavailable);
+    }
+    
+    /**
+     * @param followsEvents The panel is kept current by live events, so its read must be placed among them
+     * @param apply Called on the EDT with the data and the last event sequence the data covers
+     */
+    private <T> void loadPanel(String panel, int generation, boolean followsEvents, Callable<T> fetch,
+                               BiConsumer<T, Long> apply, Consumer<String> placeholder) {
+        long[] sequence = new long[1];
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return followsEvents ? fetchSettled(panel, fetch, sequence) : fetch.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, LogContext.wrap(LOADER)).orTimeout(PANEL_TIMEOUT_SECONDS, TimeUnit.SECONDS).whenComplete((data, error) -> {
+            String failure = null;
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (cause instanceof TimeoutException) {
+                    Logger.warn("Dashboard " + panel + " not loaded within " + PANEL_TIMEOUT_SECONDS + "s");
+                    failure = "Timed out loading data";
+                } else {
+                    Logger.error("Error loading " + panel + ": " + cause.getMessage(), cause);
+                    failure = "Error loading data";
+                }
+            }
+            String placeholderText = failure;
+            SwingUtilities.invokeLater(() -> {
+                if (generation != loadGeneration) {
+                    return; // superseded by a newer refresh
+                }
+                if (placeholderText == null) {
+                    apply.accept(data, sequence[0]);
+                } else {
+                    placeholder.accept(placeholderText);
+                }
+                if (--panelsLoading == 0) {
+                    eventsDuringLoad.clear();
+                }
+            });
+        });
+    }
+    
+    /**
+     * Run fetch until no commit overlaps it, so the events it saw are known exactly.
+     *
+     * @param sequence Receives the last event sequence the data covers
+     */
+    private static <T> T fetchSettled(String panel, Callable<T> fetch, long[] sequence) throws Exception {
+        SalesEventBus bus = SalesEventBus.getInstance();
+        for (int attempt = 1; ; attempt++) {
+            long before = bus.getSettledSequence();
+            long last = bus.getLastSequence();
+            T data = fetch.call();
+            if (before >= 0 && before == bus.getSettledSequence()) {
+                sequence[0] = before;
+                return data;
+            }
+            if (attempt == SETTLE_ATTEMPTS) {
+                Logger.debug("Dashboard " + panel + " read overlapped a commit " + attempt
+                        + " times; figures may be off until the next refresh");
+                sequence[0] = last;
+                return data;
+            }
+        }
+    }
+    
+    private void rebuildDailySales(JButton rebuildButton) {
+        rebuildButton.setEnabled(false);
+        SwingWorker<Integer, Void> worker = new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                return dailySalesDAO.rebuild(null, null);
+            }
+            
             @Override
-            protected Void doInBackground() {
-                loadKPIs();
-                loadRecentInvoices();
-                loadTopProducts();
-                loadRevenueTrend();
-                return null;
+            protected void done() {
+                rebuildButton.setEnabled(true);
+                try {
+                    get();
+                    loadDashboardData();
+                } catch (Exception e) {
+                    Logger.error("Error rebuilding daily sales: " + e.getMessage(), e);
+                    JOptionPane.showMessageDialog(DashboardDialog.this,
+                            "Error rebuilding totals: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
             }
         };
         worker.execute();
     }
     
-    private void loadKPIs() {
-        try (Connection conn = DBUtil.getConnection()) {
-            // Today's sales
-            String todaySql = "SELECT SUM(TotalAmount) FROM Invoices WHERE DATE(InvoiceDate) = CURDATE()";
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(todaySql);
-            if (rs.next()) {
-                double todaySales = rs.getDouble(1);
-                todaySalesLabel.setText(String.format("€%.2f", todaySales));
-            }
-            
-            // This month's sales
-            String monthSql = "SELECT SUM(TotalAmount) FROM Invoices WHERE MONTH(InvoiceDate) = MONTH(CURDATE()) AND YEAR(InvoiceDate) = YEAR(CURDATE())";
-            rs = stmt.executeQuery(monthSql);
-            if (rs.next()) {
-                double monthSales = rs.getDouble(1);
-                monthSalesLabel.setText(String.format("€%.2f", monthSales));
+    private KpiData fetchKPIs() throws SQLException {
+        // Read from the DailySales rollup: a few rows per day instead of a scan of Invoices
+        LocalDate today = LocalDate.now();
+        BigDecimal daySales = dailySalesDAO.getTotals(today, today).getTotalAmount();
+        BigDecimal periodSales = dailySalesDAO.getTotals(today.withDayOfMonth(1), today).getTotalAmount();
+        
+        ProductCatalogCache catalog = ProductCatalogCache.getInstance();
+        return new KpiData(today, daySales, periodSales, catalog.getAllProducts().size(),
+                catalog.getLowStockCount());
+    }
+    
+    private void applyKPIs(KpiData data, long sequence) {
+        kpisLoaded = true;
+        loadedDay = data.day;
+        todaySales = data.todaySales;
+        monthSales = data.monthSales;
+        lowStockCount = data.lowStockCount;
+        for (SalesEvent event : eventsAfter(sequence)) {
+            if (event instanceof InvoiceCommitted) {
+                InvoiceCommitted invoice = (InvoiceCommitted) event;
+                addToTotals(invoice.getInvoiceDate(), invoice.getTotalAmount());
+            } else if (event instanceof ReturnProcessed) {
+                ReturnProcessed ret = (ReturnProcessed) event;
+                addToTotals(ret.getReturnDate(), ret.getRefundAmount().negate());
+            } else if (event instanceof StockChanged) {
+                lowStockCount = ((StockChanged) event).getLowStockCount();
             }
-            
-            // Total products
-            ProductDAO productDAO = new ProductDAO();
-            List<Product> products = productDAO.getAllProducts();
-            totalProductsLabel.setText(String.valueOf(products.size()));
-            
-            // Low stock count
-            long lowStockCount = products.stream()
-                    .filter(p -> p.getStockQuantity() <= p.getLowStockThreshold())
-                    .count();
-            lowStockCountLabel.setText(String.valueOf(lowStockCount));
-            
-        } catch (Exception e) {
-            Logger.error("Error loading KPIs: " + e.getMessage(), e);
         }
+        renderSales();
+        totalProductsLabel.setText(String.valueOf(data.productCount));
+        lowStockCountLabel.setText(String.valueOf(lowStockCount));
     }
     
-    private void loadRecentInvoices() {
-        try {
-            InvoiceDAO invoiceDAO = new InvoiceDAO();
-            List<Invoice> invoices = invoiceDAO.getAllInvoices();
-            
-            // Sort by date descending and take last 10
-            invoices.sort((a, b) -> b.getInvoiceDate().compareTo(a.getInvoiceDate()));
-            List<Invoice> recent = invoices.subList(0, Math.min(10, invoices.size()));
-            
-            StringBuilder text = new StringBuilder();
-            text.append(String.format("%-8s %-20s %10s%n", "ID", "Date", "Amount"));
-            text.append("─".repeat(40)).append("\n");
-            
-            SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-            for (Invoice inv : recent) {
-                text.append(String.format("%-8d %-20s €%8.2f%n",
-                        inv.getInvoiceID(),
-                        df.format(inv.getInvoiceDate()),
-                        inv.getTotalAmount()));
+    private void showKPIsUnavailable(String message) {
+        kpisLoaded = false;
+        todaySalesLabel.setText("N/A");
+        monthSalesLabel.setText("N/A");
+        totalProductsLabel.setText("N/A");
+        lowStockCountLabel.setText("N/A");
+        todaySalesLabel.setToolTipText(message);
+    }
+    
+    private void renderSales() {
+        todaySalesLabel.setToolTipText(null);
+        todaySalesLabel.setText(String.format("€%.2f", todaySales));
+        monthSalesLabel.setText(String.format("€%.2f", monthSales));
+    }
+    
+    private List<Invoice> fetchRecentInvoices() throws SQLException {
+        // First page of the newest-first keyset query; reads 10 rows, not the whole table
+        return new InvoiceDAO().getInvoicesPage(null, RECENT_INVOICES, InvoiceFilter.NONE).getRows();
+    }
+    
+    private void applyRecentInvoices(List<Invoice> recent, long sequence) {
+        recentInvoicesLoaded = true;
+        recentInvoices = new ArrayList<>(recent);
+        for (SalesEvent event : eventsAfter(sequence)) {
+            if (event instanceof InvoiceCommitted) {
+                addToRecentInvoices((InvoiceCommitted) event);
             }
-            
-            recentInvoicesArea.setText(text.toString());
-            
-        } catch (Exception e) {
-            Logger.error("Error loading recent invoices: " + e.getMessage(), e);
-            recentInvoicesArea.setText("Error loading data");
         }
+        renderRecentInvoices();
     }
     
-    private void loadTopProducts() {
-        try (Connection conn = DBUtil.getConnection()) {
-            String sql = "SELECT p.ProductID, p.ProductName, SUM(ii.Quantity) as TotalSold " +
-                        "FROM InvoiceItems ii " +
-                        "JOIN Products p ON ii.ProductID = p.ProductID " +
-                        "GROUP BY p.ProductID, p.ProductName " +
-                        "ORDER BY TotalSold DESC " +
-                        "LIMIT 10";
-            
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
+    private void showRecentInvoicesUnavailable(String message) {
+        recentInvoicesLoaded = false;
+        recentInvoicesArea.setText(message);
+    }
+    
+    private void renderRecentInvoices() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-8s %-20s %10s%n", "ID", "Date", "Amount"));
+        text.append("─".repeat(40)).append("\n");
+        
+        for (Invoice inv : recentInvoices) {
+            text.append(String.format("%-8d %-20s €%8.2f%n",
+                    inv.getInvoiceID(),
+                    inv.getInvoiceDate(),
+                    inv.getTotalAmount()));
+        }
+        
+        recentInvoicesArea.setText(text.toString());
+    }
+    
+    private String fetchTopProducts() throws SQLException {
+        String sql = "SELECT p.ProductID, p.Name AS ProductName, SUM(ii.Quantity) as TotalSold " +
+                    "FROM InvoiceItems ii " +
+                    "JOIN Products p ON ii.ProductID = p.ProductID " +
+                    "GROUP BY p.ProductID, p.Name " +
+                    "ORDER BY TotalSold DESC " +
+                    "LIMIT 10";
+        
+        try (Connection conn = DBUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
             
             StringBuilder text = new StringBuilder();
             text.append(String.format("%-5s %-25s %8s%n", "ID", "Product", "Sold"));
@@ -260,57 +565,76 @@ public class DashboardDialog extends JDialog {
                         truncate(rs.getString("ProductName"), 25),
                         rs.getInt("TotalSold")));
             }
-            
-            topProductsArea.setText(text.toString());
-            
-        } catch (Exception e) {
-            Logger.error("Error loading top products: " + e.getMessage(), e);
-            topProductsArea.setText("Error loading data");
+            return text.toString();
         }
     }
     
-    private void loadRevenueTrend() {
-        try (Connection conn = DBUtil.getConnection()) {
-            String sql = "SELECT DATE(InvoiceDate) as SaleDate, SUM(TotalAmount) as DailyRevenue " +
-                        "FROM Invoices " +
-                        "WHERE InvoiceDate >= DATE_SUB(CURDATE(), INTERVAL 7 DAY) " +
-                        "GROUP BY DATE(InvoiceDate) " +
-                        "ORDER BY SaleDate";
-            
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
-            
-            StringBuilder text = new StringBuilder();
-            text.append(String.format("%-12s %12s %s%n", "Date", "Revenue", "Chart"));
-            text.append("─".repeat(50)).append("\n");
-            
-            double maxRevenue = 0;
-            Map<Date, Double> data = new LinkedHashMap<>();
-            
-            while (rs.next()) {
-                Date date = rs.getDate("SaleDate");
-                double revenue = rs.getDouble("DailyRevenue");
-                data.put(date, revenue);
-                maxRevenue = Math.max(maxRevenue, revenue);
-            }
-            
-            // Create ASCII bar chart
-            for (Map.Entry<Date, Double> entry : data.entrySet()) {
-                double revenue = entry.getValue();
-                int barLength = maxRevenue > 0 ? (int) ((revenue / maxRevenue) * 20) : 0;
-                String bar = "█".repeat(barLength);
-                
-                text.append(String.format("%-12s €%10.2f %s%n",
-                        DATE_FORMAT.format(entry.getKey()),
-                        revenue,
-                        bar));
+    private Map<LocalDate, BigDecimal> fetchRevenueTrend() throws SQLException {
+        LocalDate today = LocalDate.now();
+        return dailySalesDAO.getDailyNetSales(today.minusDays(TREND_DAYS), today);
+    }
+    
+    private void applyRevenueTrend(Map<LocalDate, BigDecimal> data, long sequence) {
+        revenueTrendLoaded = true;
+        revenueTrend = data;
+        for (SalesEvent event : eventsAfter(sequence)) {
+            if (event instanceof InvoiceCommitted) {
+                InvoiceCommitted invoice = (InvoiceCommitted) event;
+                addToTrend(invoice.getInvoiceDate(), invoice.getTotalAmount());
+            } else if (event instanceof ReturnProcessed) {
+                ReturnProcessed ret = (ReturnProcessed) event;
+                addToTrend(ret.getReturnDate(), ret.getRefundAmount().negate());
             }
+        }
+        renderRevenueTrend();
+    }
+    
+    private void showRevenueTrendUnavailable(String message) {
+        revenueTrendLoaded = false;
+        revenueTrendArea.setText(message);
+    }
+    
+    private void renderRevenueTrend() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-12s %12s %s%n", "Date", "Revenue", "Chart"));
+        text.append("─".repeat(50)).append("\n");
+        
+        double maxRevenue = 0;
+        for (BigDecimal revenue : revenueTrend.values()) {
+            maxRevenue = Math.max(maxRevenue, revenue.doubleValue());
+        }
+        
+        // Create ASCII bar chart
+        for (Map.Entry<LocalDate, BigDecimal> entry : revenueTrend.entrySet()) {
+            double revenue = entry.getValue().doubleValue();
+            int barLength = maxRevenue > 0 ? (int) (Math.max(0, revenue / maxRevenue) * 20) : 0;
+            String bar = "█".repeat(barLength);
             
-            revenueTrendArea.setText(text.toString());
-            
-        } catch (Exception e) {
-            Logger.error("Error loading revenue trend: " + e.getMessage(), e);
-            revenueTrendArea.setText("Error loading data");
+            text.append(String.format("%-12s €%10.2f %s%n",
+                    entry.getKey().format(DATE_FORMAT),
+                    revenue,
+                    bar));
+        }
+        
+        revenueTrendArea.setText(text.toString());
+    }
+    
+    /**
+     * KPI figures read off the EDT, applied together.
+     */
+    private static final class KpiData {
+        final LocalDate day;
+        final BigDecimal todaySales;
+        final BigDecimal monthSales;
+        final int productCount;
+        final int lowStockCount;
+        
+        KpiData(LocalDate day, BigDecimal todaySales, BigDecimal monthSales, int productCount, int lowStockCount) {
+            this.day = day;
+            this.todaySales = todaySales;
+            this.monthSales = monthSales;
+            this.productCount = productCount;
+            this.lowStockCount = lowStockCount;
         }
     }
     
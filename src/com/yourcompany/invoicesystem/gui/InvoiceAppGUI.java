@@ -9,6 +9,7 @@ package com.yourcompany.invoicesystem.gui;
 // Core Java utilities
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Set;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
@@ -33,24 +34,27 @@ import java.awt.event.FocusEvent;
 import java.net.URL; // For loading resources
 
 // Project-specific classes
+import com.yourcompany.invoicesystem.cache.ProductCatalogCache;
+import com.yourcompany.invoicesystem.cache.ReferenceDataCache;
 import com.yourcompany.invoicesystem.dao.ProductDAO;
-import com.yourcompany.invoicesystem.dao.InvoiceDAO;
-import com.yourcompany.invoicesystem.dao.InvoiceItemDAO;
+import com.yourcompany.invoicesystem.exception.BusinessLogicException;
 import com.yourcompany.invoicesystem.model.Product;
 import com.yourcompany.invoicesystem.model.Invoice;
 import com.yourcompany.invoicesystem.model.InvoiceItem;
+import com.yourcompany.invoicesystem.service.InvoiceService;
+import com.yourcompany.invoicesystem.util.LogContext;
 
 public class InvoiceAppGUI extends JFrame {
 
     // DAOs
     private ProductDAO productDAO;
-    private InvoiceDAO invoiceDAO;
-    private InvoiceItemDAO invoiceItemDAO;
+    private InvoiceService invoiceService;
 
     // Product Table components
     private JTable productTable;
     private DefaultTableModel productTableModel;
     private JTextField productSearchField;
+    private TableRowSorter<DefaultTableModel> productSorter;
 
     // Current Invoice Table components
     private JTable currentInvoiceTable;
@@ -112,8 +116,7 @@ public class InvoiceAppGUI extends JFrame {
     
     public InvoiceAppGUI() {
         productDAO = new ProductDAO();
-        invoiceDAO = new InvoiceDAO();
-        invoiceItemDAO = new InvoiceItemDAO();
+        invoiceService = new InvoiceService();
         currentSubtotal = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
 
         initLookAndFeel();
@@ -319,15 +322,22 @@ public class InvoiceAppGUI extends JFrame {
             JOptionPane.INFORMATION_MESSAGE);
     }
     
+    /**
+     * @param correlationId Ties the receipt's log lines to the payment and checkout of the same bill
+     */
+    @SuppressWarnings("try")
     private void printReceipt(Invoice invoice, int invoiceId, BigDecimal discountPercent,
-                             BigDecimal discountAmount, BigDecimal subtotal) {
+                             BigDecimal discountAmount, BigDecimal subtotal, String correlationId) {
         try {
             com.yourcompany.invoicesystem.util.ReceiptPrinter printer = 
                 new com.yourcompany.invoicesystem.util.ReceiptPrinter();
             
             // Generate receipt text
-            String receiptText = printer.generateDetailedReceipt(invoice, discountPercent, 
-                                                                discountAmount, subtotal);
+            String receiptText;
+            try (LogContext.Scope logScope = receiptLogScope(invoiceId, correlationId)) {
+                receiptText = printer.generateDetailedReceipt(invoice, discountPercent, 
+                                                             discountAmount, subtotal);
+            }
             
             // Show preview dialog
             JTextArea textArea = new JTextArea(receiptText);
@@ -355,8 +365,12 @@ public class InvoiceAppGUI extends JFrame {
                 int result = fileChooser.showSaveDialog(this);
                 if (result == JFileChooser.APPROVE_OPTION) {
                     String filePath = fileChooser.getSelectedFile().getAbsolutePath();
-                    if (printer.saveDetailedReceiptToFile(invoice, discountPercent, 
-                                                         discountAmount, subtotal, filePath)) {
+                    boolean saved;
+                    try (LogContext.Scope logScope = receiptLogScope(invoiceId, correlationId)) {
+                        saved = printer.saveDetailedReceiptToFile(invoice, discountPercent, 
+                                                                 discountAmount, subtotal, filePath);
+                    }
+                    if (saved) {
                         JOptionPane.showMessageDialog(this,
                             "Receipt saved successfully to:\n" + filePath,
                             "Save Successful",
@@ -389,6 +403,15 @@ public class InvoiceAppGUI extends JFrame {
         }
     }
 
+    /**
+     * Log context for receipt work. Open it around that work only, never around a
+     * modal dialog: the dialog's nested event loop would run every other EDT task
+     * with this bill's IDs.
+     */
+    private static LogContext.Scope receiptLogScope(int invoiceId, String correlationId) {
+        return LogContext.put(LogContext.CORRELATION_ID, correlationId).put(LogContext.INVOICE_ID, invoiceId);
+    }
+
     private void initComponents() {
         JPanel productSectionPanel = createProductSectionPanel();
         add(productSectionPanel, BorderLayout.WEST);
@@ -430,6 +453,12 @@ public class InvoiceAppGUI extends JFrame {
             }
         });
         searchPanel.add(productSearchField, BorderLayout.CENTER);
+
+        barcodeField = new JTextField(12);
+        barcodeField.setFont(LABEL_FONT);
+        barcodeField.setToolTipText("Scan a barcode or type a product ID, then press Enter");
+        barcodeField.addActionListener(e -> lookupProductByBarcode());
+        searchPanel.add(barcodeField, BorderLayout.EAST);
         sectionPanel.add(searchPanel, BorderLayout.NORTH);
 
         JPanel tablePanel = createProductPanel();
@@ -459,7 +488,8 @@ public class InvoiceAppGUI extends JFrame {
         productTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         productTable.setRowHeight(28); // Increased row height
         productTable.getTableHeader().setReorderingAllowed(false);
-        productTable.setAutoCreateRowSorter(true);
+        productSorter = new TableRowSorter<>(productTableModel); // one sorter; filterProductTable only swaps its filter
+        productTable.setRowSorter(productSorter);
 
         JScrollPane scrollPane = new JScrollPane(productTable);
         scrollPane.setBorder(new LineBorder(BORDER_COLOR));
@@ -705,16 +735,19 @@ public class InvoiceAppGUI extends JFrame {
     }
 
     private void filterProductTable() {
-        String searchText = productSearchField.getText().trim().toLowerCase();
-        DefaultTableModel model = (DefaultTableModel) productTable.getModel();
-        TableRowSorter<DefaultTableModel> sorter = new TableRowSorter<>(model);
-        productTable.setRowSorter(sorter);
+        String searchText = productSearchField.getText().trim();
 
         if (searchText.length() == 0) {
-            sorter.setRowFilter(null);
+            productSorter.setRowFilter(null);
         } else {
-            // (?i) for case-insensitive search
-            sorter.setRowFilter(RowFilter.regexFilter("(?i)" + searchText, 0, 1)); // Search ID (col 0) and Name (col 1)
+            // The index answers the query; the filter only checks each row's ID against the result
+            Set<Integer> matchingIds = ProductCatalogCache.getInstance().search(searchText);
+            productSorter.setRowFilter(new RowFilter<DefaultTableModel, Integer>() {
+                @Override
+                public boolean include(Entry<? extends DefaultTableModel, ? extends Integer> entry) {
+                    return matchingIds.contains((Integer) entry.getValue(0));
+                }
+            });
         }
     }
 
@@ -730,6 +763,10 @@ public class InvoiceAppGUI extends JFrame {
         String productName = (String) productTableModel.getValueAt(selectedRowInModel, 1);
         BigDecimal unitPrice = (BigDecimal) productTableModel.getValueAt(selectedRowInModel, 2);
         int availableStock = (int) productTableModel.getValueAt(selectedRowInModel, 3);
+        addProductToBill(productId, productName, unitPrice, availableStock);
+    }
+
+    private void addProductToBill(int productId, String productName, BigDecimal unitPrice, int availableStock) {
         int quantity;
         try {
             quantity = (int) quantitySpinner.getValue();
@@ -858,7 +895,8 @@ public class InvoiceAppGUI extends JFrame {
                 JOptionPane.QUESTION_MESSAGE);
             
             if (printChoice == JOptionPane.YES_OPTION) {
-                printReceipt(savedInvoice, savedInvoice.getInvoiceID(), discountPercentVal, finalDiscountAmount, finalSubtotal);
+                printReceipt(savedInvoice, savedInvoice.getInvoiceID(), discountPercentVal, finalDiscountAmount, finalSubtotal,
+                        paymentDialog.getCorrelationId());
             }
             
             // Clear the bill after successful payment
@@ -890,41 +928,24 @@ public class InvoiceAppGUI extends JFrame {
 
         Invoice invoice = new Invoice();
         invoice.setInvoiceDate(LocalDate.now());
+        invoice.setDiscountPercentage(discountPercentVal.doubleValue());
         invoice.setTotalAmount(finalGrandTotal);
 
-        int generatedInvoiceId = -1;
-        java.sql.Connection conn = null;
-        
+        List<InvoiceItem> items = new ArrayList<>();
+        for (Object[] itemData : currentBillItemsData) {
+            InvoiceItem item = new InvoiceItem();
+            item.setProductID((int) itemData[0]);
+            item.setQuantity((int) itemData[2]);
+            item.setPriceAtSale((BigDecimal) itemData[3]);
+            items.add(item);
+        }
+
         try {
-            // Start transaction - all operations will be atomic
-            conn = com.yourcompany.invoicesystem.util.DBUtil.getConnection(false);
-            
-            // Step 1: Save invoice header
-            generatedInvoiceId = invoiceDAO.saveInvoice(invoice, conn);
-            
-            // Step 2: Save all invoice items and update stock
-            for (Object[] itemData : currentBillItemsData) {
-                int productId = (int) itemData[0];
-                int quantity = (int) itemData[2];
-                BigDecimal priceAtSale = (BigDecimal) itemData[3];
-
-                InvoiceItem item = new InvoiceItem();
-                item.setInvoiceID(generatedInvoiceId);
-                item.setProductID(productId);
-                item.setQuantity(quantity);
-                item.setPriceAtSale(priceAtSale);
-
-                // Save invoice item
-                invoiceItemDAO.saveInvoiceItem(item, conn);
-                
-                // Decrease stock (with pessimistic locking)
-                productDAO.decreaseProductStock(productId, quantity, conn);
-            }
-            
-            // Step 3: Commit transaction - all or nothing
-            conn.commit();
+            // Invoice header, stock and items are saved atomically - all or nothing
+            invoiceService.checkout(invoice, items, null);
+            int generatedInvoiceId = invoice.getInvoiceID();
             
-            showStyledMessageDialog("Invoice #" + generatedInvoiceId + " saved successfully!\\nAll items processed and stock updated.", 
+            showStyledMessageDialog("Invoice #" + generatedInvoiceId + " saved successfully!\nAll items processed and stock updated.", 
                                   "Save Successful", JOptionPane.INFORMATION_MESSAGE);
             
             // Offer to print receipt
@@ -935,48 +956,16 @@ public class InvoiceAppGUI extends JFrame {
                 JOptionPane.QUESTION_MESSAGE);
             
             if (printChoice == JOptionPane.YES_OPTION) {
-                printReceipt(invoice, generatedInvoiceId, discountPercentVal, finalDiscountAmount, finalSubtotal);
+                printReceipt(invoice, generatedInvoiceId, discountPercentVal, finalDiscountAmount, finalSubtotal,
+                        LogContext.newCorrelationId());
             }
             
-        } catch (java.sql.SQLException e) {
-            // Rollback transaction on any error
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                    showStyledMessageDialog("Transaction failed and was rolled back.\nError: " + e.getMessage() + 
-                                          "\n\nNo changes were made to the database.", 
-                                          "Save Failed", JOptionPane.ERROR_MESSAGE);
-                } catch (java.sql.SQLException ex) {
-                    showStyledMessageDialog("Critical error during rollback: " + ex.getMessage(), 
-                                          "Database Error", JOptionPane.ERROR_MESSAGE);
-                }
-            }
+        } catch (BusinessLogicException e) {
+            showStyledMessageDialog("Transaction failed and was rolled back.\nError: " + e.getMessage() + 
+                                  "\n\nNo changes were made to the database.", 
+                                  "Save Failed", JOptionPane.ERROR_MESSAGE);
             e.printStackTrace();
             return; // Don't clear the bill so user can retry
-            
-        } catch (Exception e) {
-            // Rollback on any other exception
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (java.sql.SQLException ex) {
-                    ex.printStackTrace();
-                }
-            }
-            showStyledMessageDialog("Unexpected error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
-            return;
-            
-        } finally {
-            // Always close the connection and restore auto-commit
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (java.sql.SQLException e) {
-                    System.err.println("Error closing connection: " + e.getMessage());
-                }
-            }
         }
 
         clearBill();
@@ -999,7 +988,7 @@ public class InvoiceAppGUI extends JFrame {
     private void loadProductData() {
         try {
             productTableModel.setRowCount(0);
-            List<Product> products = productDAO.getAllProducts();
+            List<Product> products = ProductCatalogCache.getInstance().getAllProducts();
             if (products != null) {
                 for (Product product : products) {
                     productTableModel.addRow(new Object[]{
@@ -1045,22 +1034,11 @@ public class InvoiceAppGUI extends JFrame {
             return;
         }
         
-        // Search for product by barcode in the product table
-        boolean found = false;
-        for (int i = 0; i < productTableModel.getRowCount(); i++) {
-            String productId = productTableModel.getValueAt(i, 0).toString();
-            String productName = productTableModel.getValueAt(i, 1).toString().toLowerCase();
-            
-            if (productId.equals(barcode) || productName.contains(barcode.toLowerCase())) {
-                productTable.setRowSelectionInterval(i, i);
-                productTable.scrollRectToVisible(productTable.getCellRect(i, 0, true));
-                addItemToBill();
-                found = true;
-                break;
-            }
-        }
-        
-        if (!found) {
+        // Hash lookup on Barcode, then ProductID, then a unique barcode prefix
+        Product product = ProductCatalogCache.getInstance().lookupByCode(barcode);
+        if (product != null) {
+            addProductToBill(product.getProductID(), product.getName(), product.getPrice(), product.getStock());
+        } else {
             showStyledMessageDialog("Product not found for barcode: " + barcode, 
                                   "Not Found", JOptionPane.WARNING_MESSAGE);
         }
@@ -1071,11 +1049,11 @@ public class InvoiceAppGUI extends JFrame {
     
     private void checkLowStockProducts() {
         try {
-            List<Product> products = productDAO.getAllProducts();
+            List<Product> products = ProductCatalogCache.getInstance().getLowStockProducts();
             List<String> lowStockItems = new ArrayList<>();
             
             for (Product product : products) {
-                if (product.getStock() <= 10 && product.getStock() > 0) {
+                if (product.getStock() > 0) {
                     lowStockItems.add(product.getName() + " (Stock: " + product.getStock() + ")");
                 } else if (product.getStock() == 0) {
                     lowStockItems.add(product.getName() + " (OUT OF STOCK)");
@@ -1101,6 +1079,8 @@ public class InvoiceAppGUI extends JFrame {
     }
 
     public static void main(String[] args) {
+        // Load payment methods, tax rates and settings before the first dialog needs them
+        ReferenceDataCache.getInstance().preload();
         SwingUtilities.invokeLater(() -> {
             InvoiceAppGUI app = new InvoiceAppGUI();
             app.setVisible(true);
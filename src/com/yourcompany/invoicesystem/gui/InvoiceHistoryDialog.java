@@ -6,29 +6,44 @@
 
 package com.yourcompany.invoicesystem.gui;
 
+import com.yourcompany.invoicesystem.config.ConfigManager;
+import com.yourcompany.invoicesystem.dao.InvoiceCursor;
 import com.yourcompany.invoicesystem.dao.InvoiceDAO;
+import com.yourcompany.invoicesystem.dao.InvoiceFilter;
 import com.yourcompany.invoicesystem.dao.InvoiceItemDAO;
-import com.yourcompany.invoicesystem.dao.ProductDAO;
+import com.yourcompany.invoicesystem.dao.InvoicePage;
 import com.yourcompany.invoicesystem.model.Invoice;
 import com.yourcompany.invoicesystem.model.InvoiceItem;
-import com.yourcompany.invoicesystem.model.Product;
+import com.yourcompany.invoicesystem.model.InvoiceSummary;
+import com.yourcompany.invoicesystem.util.Logger;
 
 import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class InvoiceHistoryDialog extends JDialog {
     
     private InvoiceDAO invoiceDAO;
     private InvoiceItemDAO invoiceItemDAO;
-    private ProductDAO productDAO;
     
     private JTable invoicesTable;
-    private DefaultTableModel invoicesTableModel;
+    private InvoiceRowsModel invoicesTableModel;
+    private JScrollPane invoicesScroll;
+    private JLabel statusLabel;
+    
+    // Keyset paging state; only touched on the EDT
+    private final int pageSize = ConfigManager.getInt("invoice.history.page.size", 100);
+    private InvoiceCursor nextCursor;
+    private boolean hasMorePages;
+    private boolean pageLoading;
+    private int loadGeneration; // bumped on reload so late results of an old load are dropped
     private JTable itemsTable;
     private DefaultTableModel itemsTableModel;
     
@@ -44,7 +59,6 @@ public class InvoiceHistoryDialog extends JDialog {
         
         invoiceDAO = new InvoiceDAO();
         invoiceItemDAO = new InvoiceItemDAO();
-        productDAO = new ProductDAO();
         
         initComponents();
         loadAllInvoices();
@@ -89,13 +103,7 @@ public class InvoiceHistoryDialog extends JDialog {
         JPanel invoicesPanel = new JPanel(new BorderLayout());
         invoicesPanel.setBorder(BorderFactory.createTitledBorder("Invoices"));
         
-        String[] invoiceColumns = {"Invoice ID", "Date", "Total Amount", "Items Count"};
-        invoicesTableModel = new DefaultTableModel(invoiceColumns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        invoicesTableModel = new InvoiceRowsModel();
         
         invoicesTable = new JTable(invoicesTableModel);
         invoicesTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -111,9 +119,19 @@ public class InvoiceHistoryDialog extends JDialog {
         rightRenderer.setHorizontalAlignment(SwingConstants.RIGHT);
         invoicesTable.getColumnModel().getColumn(2).setCellRenderer(rightRenderer);
         
-        JScrollPane invoicesScroll = new JScrollPane(invoicesTable);
+        invoicesScroll = new JScrollPane(invoicesTable);
+        // Fetch the next page when the user scrolls near the end of what is loaded
+        invoicesScroll.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                loadMoreIfNeeded();
+            }
+        });
         invoicesPanel.add(invoicesScroll, BorderLayout.CENTER);
         
+        statusLabel = new JLabel(" ");
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(2, 5, 2, 5));
+        invoicesPanel.add(statusLabel, BorderLayout.SOUTH);
+        
         splitPane.setTopComponent(invoicesPanel);
         
         // Bottom part - Invoice items
@@ -157,26 +175,84 @@ public class InvoiceHistoryDialog extends JDialog {
     }
     
     private void loadAllInvoices() {
-        try {
-            invoicesTableModel.setRowCount(0);
-            itemsTableModel.setRowCount(0);
+        loadGeneration++;
+        invoicesTableModel.clear();
+        itemsTableModel.setRowCount(0);
+        nextCursor = null;
+        hasMorePages = true;
+        pageLoading = false;
+        loadNextPage();
+    }
+    
+    /**
+     * Load another page if the last loaded row is within one page of the visible area.
+     * Also keeps loading until the viewport is filled.
+     */
+    private void loadMoreIfNeeded() {
+        if (!hasMorePages || pageLoading) {
+            return;
+        }
+        JScrollBar bar = invoicesScroll.getVerticalScrollBar();
+        int remaining = bar.getMaximum() - (bar.getValue() + bar.getVisibleAmount());
+        if (remaining <= invoicesTable.getRowHeight() * pageSize / 2) {
+            loadNextPage();
+        }
+    }
+    
+    private void loadNextPage() {
+        pageLoading = true;
+        statusLabel.setText("Loading...");
+        final int generation = loadGeneration;
+        final InvoiceCursor cursor = nextCursor;
+        
+        new SwingWorker<InvoicePage<Object[]>, Void>() {
+            @Override
+            protected InvoicePage<Object[]> doInBackground() throws Exception {
+                InvoicePage<InvoiceSummary> page = invoiceDAO.getInvoiceSummariesPage(cursor, pageSize, InvoiceFilter.NONE);
+                List<Object[]> rows = new ArrayList<>();
+                for (InvoiceSummary summary : page.getRows()) {
+                    rows.add(toRow(summary));
+                }
+                return new InvoicePage<>(rows, page.getNextCursor());
+            }
             
-            List<Invoice> invoices = invoiceDAO.getAllInvoices();
-            for (Invoice invoice : invoices) {
-                int itemCount = invoiceItemDAO.getInvoiceItemsByInvoiceId(invoice.getInvoiceID()).size();
-                invoicesTableModel.addRow(new Object[]{
-                    invoice.getInvoiceID(),
-                    invoice.getInvoiceDate().format(DATE_FORMATTER),
-                    String.format("€ %.2f", invoice.getTotalAmount()),
-                    itemCount
-                });
+            @Override
+            protected void done() {
+                if (generation != loadGeneration) {
+                    return; // a newer reload or search replaced the table
+                }
+                pageLoading = false;
+                try {
+                    InvoicePage<Object[]> page = get();
+                    invoicesTableModel.addRows(page.getRows());
+                    nextCursor = page.getNextCursor();
+                    hasMorePages = page.hasMore();
+                    statusLabel.setText(invoicesTableModel.getRowCount() + " invoices loaded"
+                            + (hasMorePages ? " - scroll for more" : ""));
+                    if (hasMorePages) {
+                        SwingUtilities.invokeLater(() -> loadMoreIfNeeded());
+                    }
+                } catch (InterruptedException | ExecutionException ex) {
+                    hasMorePages = false;
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    Logger.error("Error loading invoices: " + cause.getMessage(), cause);
+                    statusLabel.setText("Error loading invoices");
+                    JOptionPane.showMessageDialog(InvoiceHistoryDialog.this, 
+                        "Error loading invoices: " + cause.getMessage(), 
+                        "Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                }
             }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, 
-                "Error loading invoices: " + ex.getMessage(), 
-                "Error", 
-                JOptionPane.ERROR_MESSAGE);
-        }
+        }.execute();
+    }
+    
+    private Object[] toRow(InvoiceSummary summary) {
+        return new Object[]{
+            summary.getInvoiceID(),
+            summary.getInvoiceDate().format(DATE_FORMATTER),
+            String.format("€ %.2f", summary.getTotalAmount()),
+            summary.getItemCount()
+        };
     }
     
     private void searchInvoice() {
@@ -191,19 +267,17 @@ public class InvoiceHistoryDialog extends JDialog {
         
         try {
             int invoiceId = Integer.parseInt(searchText);
-            Invoice invoice = invoiceDAO.getInvoiceById(invoiceId);
+            InvoiceSummary summary = invoiceDAO.getInvoiceSummary(invoiceId);
             
-            invoicesTableModel.setRowCount(0);
+            loadGeneration++;
+            hasMorePages = false;
+            pageLoading = false;
+            invoicesTableModel.clear();
             itemsTableModel.setRowCount(0);
+            statusLabel.setText(" ");
             
-            if (invoice != null) {
-                int itemCount = invoiceItemDAO.getInvoiceItemsByInvoiceId(invoice.getInvoiceID()).size();
-                invoicesTableModel.addRow(new Object[]{
-                    invoice.getInvoiceID(),
-                    invoice.getInvoiceDate().format(DATE_FORMATTER),
-                    String.format("€ %.2f", invoice.getTotalAmount()),
-                    itemCount
-                });
+            if (summary != null) {
+                invoicesTableModel.addRows(List.<Object[]>of(toRow(summary)));
                 invoicesTable.setRowSelectionInterval(0, 0);
             } else {
                 JOptionPane.showMessageDialog(this, 
@@ -233,13 +307,12 @@ public class InvoiceHistoryDialog extends JDialog {
         
         try {
             int invoiceId = (int) invoicesTableModel.getValueAt(selectedRow, 0);
-            List<InvoiceItem> items = invoiceItemDAO.getInvoiceItemsByInvoiceId(invoiceId);
+            List<InvoiceItem> items = invoiceItemDAO.getInvoiceItemsWithProductNames(invoiceId);
             
             itemsTableModel.setRowCount(0);
             
             for (InvoiceItem item : items) {
-                Product product = productDAO.getProductById(item.getProductID());
-                String productName = (product != null) ? product.getName() : "Unknown";
+                String productName = (item.getProductName() != null) ? item.getProductName() : "Unknown";
                 
                 java.math.BigDecimal itemTotal = item.getPriceAtSale()
                     .multiply(new java.math.BigDecimal(item.getQuantity()));
@@ -274,7 +347,7 @@ public class InvoiceHistoryDialog extends JDialog {
         try {
             int invoiceId = (int) invoicesTableModel.getValueAt(selectedRow, 0);
             Invoice invoice = invoiceDAO.getInvoiceById(invoiceId);
-            List<InvoiceItem> items = invoiceItemDAO.getInvoiceItemsByInvoiceId(invoiceId);
+            List<InvoiceItem> items = invoiceItemDAO.getInvoiceItemsWithProductNames(invoiceId);
             
             StringBuilder details = new StringBuilder();
             details.append("═══════════════════════════════════════\n");
@@ -288,8 +361,7 @@ public class InvoiceHistoryDialog extends JDialog {
             details.append("───────────────────────────────────────\n\n");
             
             for (InvoiceItem item : items) {
-                Product product = productDAO.getProductById(item.getProductID());
-                String productName = (product != null) ? product.getName() : "Unknown";
+                String productName = (item.getProductName() != null) ? item.getProductName() : "Unknown";
                 java.math.BigDecimal itemTotal = item.getPriceAtSale()
                     .multiply(new java.math.BigDecimal(item.getQuantity()));
                 
@@ -323,5 +395,49 @@ public class InvoiceHistoryDialog extends JDialog {
                 JOptionPane.ERROR_MESSAGE);
         }
     }
+    
+    /**
+     * Invoice rows loaded so far; grows a page at a time as the user scrolls.
+     */
+    private static class InvoiceRowsModel extends AbstractTableModel {
+        private static final long serialVersionUID = 1L;
+        private static final String[] COLUMNS = {"Invoice ID", "Date", "Total Amount", "Items Count"};
+        private final List<Object[]> rows = new ArrayList<>();
+        
+        void clear() {
+            int size = rows.size();
+            if (size > 0) {
+                rows.clear();
+                fireTableRowsDeleted(0, size - 1);
+            }
+        }
+        
+        void addRows(List<Object[]> newRows) {
+            if (!newRows.isEmpty()) {
+                int first = rows.size();
+                rows.addAll(newRows);
+                fireTableRowsInserted(first, rows.size() - 1);
+            }
+        }
+        
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+        
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+        
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+        
+        @Override
+        public Object getValueAt(int row, int column) {
+            return rows.get(row)[column];
+        }
+    }
 }
-
@@ -6,12 +6,13 @@
 
 package com.yourcompany.invoicesystem.gui;
 
-import com.yourcompany.invoicesystem.dao.InvoiceDAO;
-import com.yourcompany.invoicesystem.dao.InvoiceItemDAO;
-import com.yourcompany.invoicesystem.dao.ProductDAO;
+import com.yourcompany.invoicesystem.cache.ReferenceDataCache;
+import com.yourcompany.invoicesystem.exception.BusinessLogicException;
 import com.yourcompany.invoicesystem.model.Invoice;
 import com.yourcompany.invoicesystem.model.InvoiceItem;
-import com.yourcompany.invoicesystem.util.DBUtil;
+import com.yourcompany.invoicesystem.model.PaymentMethod;
+import com.yourcompany.invoicesystem.service.InvoiceService;
+import com.yourcompany.invoicesystem.util.LogContext;
 import com.yourcompany.invoicesystem.util.Logger;
 import com.yourcompany.invoicesystem.util.SessionManager;
 
@@ -21,7 +22,7 @@ import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -37,6 +38,8 @@ public class PaymentDialog extends JDialog {
     private List<InvoiceItem> invoiceItems;
     private double totalAmount;
     private boolean paymentSuccessful = false;
+    // Ties this payment's log lines (dialog, checkout, DAOs) to the receipt printed afterwards
+    private final String correlationId = LogContext.newCorrelationId();
     
     // UI Components
     private JLabel totalLabel;
@@ -205,22 +208,15 @@ public class PaymentDialog extends JDialog {
     }
     
     private void loadPaymentMethods() {
-        try (Connection conn = DBUtil.getConnection()) {
-            String sql = "SELECT PaymentMethodID, MethodName FROM PaymentMethods WHERE IsActive = TRUE ORDER BY MethodName";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            ResultSet rs = stmt.executeQuery();
-            
-            while (rs.next()) {
-                int id = rs.getInt("PaymentMethodID");
-                String name = rs.getString("MethodName");
-                paymentMethodCombo.addItem(name);
-                paymentMethodIds.add(id);
-            }
-            
-        } catch (Exception e) {
-            Logger.error("Error loading payment methods: " + e.getMessage(), e);
-            JOptionPane.showMessageDialog(this, "Error loading payment methods: " + e.getMessage(),
+        List<PaymentMethod> methods = ReferenceDataCache.getInstance().getActivePaymentMethods();
+        if (methods.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Error loading payment methods. Please check the database connection.",
                     "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        for (PaymentMethod method : methods) {
+            paymentMethodCombo.addItem(method.getMethodName());
+            paymentMethodIds.add(method.getPaymentMethodID());
         }
     }
     
@@ -354,109 +350,94 @@ public class PaymentDialog extends JDialog {
             return;
         }
         
-        Connection conn = null;
-        try {
-            conn = DBUtil.getConnection(false); // Start transaction
-            
-            // Save invoice
-            InvoiceDAO invoiceDAO = new InvoiceDAO();
-            int invoiceId = invoiceDAO.saveInvoice(invoice, conn);
-            invoice.setInvoiceID(invoiceId);
-            
-            // Save invoice items and update stock
-            InvoiceItemDAO itemDAO = new InvoiceItemDAO();
-            ProductDAO productDAO = new ProductDAO();
-            
-            for (InvoiceItem item : invoiceItems) {
-                item.setInvoiceID(invoiceId);
-                itemDAO.saveInvoiceItem(item, conn);
+        // Closed before any message box: a modal dialog's nested event loop would run
+        // every other EDT task with this payment's IDs
+        BusinessLogicException failure = null;
+        try (LogContext.Scope scope = LogContext.put(LogContext.CORRELATION_ID, correlationId)) {
+            try {
+                // Resolved before the transaction: the step below runs while stock rows are locked
+                Map<String, Integer> methodIds = resolvePaymentMethodIds();
                 
-                // Decrease stock with transaction
-                productDAO.decreaseProductStock(item.getProductID(), item.getQuantity(), conn);
-            }
-            
-            // Save payment records
-            savePaymentRecords(conn, invoiceId);
-            
-            // Update invoice payment status
-            updateInvoicePaymentStatus(conn, invoiceId);
-            
-            conn.commit();
-            paymentSuccessful = true;
-            
-            Logger.info("Payment completed successfully for Invoice ID: " + invoiceId);
-            
-            JOptionPane.showMessageDialog(this, "Payment processed successfully!\nInvoice ID: " + invoiceId,
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
-            
-            dispose();
-            
-        } catch (Exception e) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (Exception rollbackEx) {
-                    Logger.error("Error rolling back transaction: " + rollbackEx.getMessage(), rollbackEx);
-                }
+                // Invoice, items, stock, payment records and status are saved in one transaction
+                InvoiceService invoiceService = new InvoiceService();
+                invoiceService.checkout(invoice, invoiceItems, (conn, invoiceId) -> {
+                    savePaymentRecords(conn, invoiceId, methodIds);
+                    updateInvoicePaymentStatus(conn, invoiceId);
+                });
+                scope.put(LogContext.INVOICE_ID, invoice.getInvoiceID());
+                paymentSuccessful = true;
+                
+                Logger.info("Payment completed successfully for Invoice ID: " + invoice.getInvoiceID());
+            } catch (BusinessLogicException e) {
+                // Inside the scope, so the error line carries the correlation ID
+                Logger.error("Error completing payment: " + e.getMessage(), e);
+                failure = e;
             }
-            Logger.error("Error completing payment: " + e.getMessage(), e);
-            JOptionPane.showMessageDialog(this, "Error processing payment: " + e.getMessage(),
+        }
+        
+        if (failure != null) {
+            JOptionPane.showMessageDialog(this, "Error processing payment: " + failure.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (Exception e) {
-                    Logger.error("Error closing connection: " + e.getMessage(), e);
-                }
+            return;
+        }
+        JOptionPane.showMessageDialog(this, "Payment processed successfully!\nInvoice ID: " + invoice.getInvoiceID(),
+                "Success", JOptionPane.INFORMATION_MESSAGE);
+        dispose();
+    }
+    
+    /**
+     * @return PaymentMethodID for each entry in payments, keyed like payments
+     */
+    private Map<String, Integer> resolvePaymentMethodIds() throws BusinessLogicException {
+        Map<String, Integer> methodIds = new HashMap<>();
+        for (String key : payments.keySet()) {
+            String methodKey = key.substring(0, key.lastIndexOf("_"));
+            try {
+                methodIds.put(key, getPaymentMethodId(methodKey));
+            } catch (SQLException e) {
+                throw new BusinessLogicException(e.getMessage(), e);
             }
         }
+        return methodIds;
     }
     
-    private void savePaymentRecords(Connection conn, int invoiceId) throws Exception {
+    private void savePaymentRecords(Connection conn, int invoiceId, Map<String, Integer> methodIds) throws SQLException {
         String sql = "INSERT INTO InvoicePayments (InvoiceID, PaymentMethodID, Amount) VALUES (?, ?, ?)";
-        PreparedStatement stmt = conn.prepareStatement(sql);
-        
-        for (Map.Entry<String, Double> entry : payments.entrySet()) {
-            String methodKey = entry.getKey().substring(0, entry.getKey().lastIndexOf("_"));
-            int methodId = getPaymentMethodId(methodKey);
-            
-            stmt.setInt(1, invoiceId);
-            stmt.setInt(2, methodId);
-            stmt.setDouble(3, entry.getValue());
-            stmt.executeUpdate();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<String, Double> entry : payments.entrySet()) {
+                stmt.setInt(1, invoiceId);
+                stmt.setInt(2, methodIds.get(entry.getKey()));
+                stmt.setDouble(3, entry.getValue());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
         }
     }
     
-    private int getPaymentMethodId(String methodName) throws Exception {
-        try (Connection conn = DBUtil.getConnection()) {
-            String sql = "SELECT PaymentMethodID FROM PaymentMethods WHERE MethodName = ?";
-            PreparedStatement stmt = conn.prepareStatement(sql);
-            stmt.setString(1, methodName);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("PaymentMethodID");
-            }
-            throw new Exception("Payment method not found: " + methodName);
+    private int getPaymentMethodId(String methodName) throws SQLException {
+        PaymentMethod method = ReferenceDataCache.getInstance().getPaymentMethodByName(methodName);
+        if (method == null) {
+            ReferenceDataCache.getInstance().invalidate();
+            throw new SQLException("Payment method not found: " + methodName);
         }
+        return method.getPaymentMethodID();
     }
     
-    private void updateInvoicePaymentStatus(Connection conn, int invoiceId) throws Exception {
+    private void updateInvoicePaymentStatus(Connection conn, int invoiceId) throws SQLException {
         String status = (totalPaid >= totalAmount) ? "PAID" : "PARTIAL";
         String sql = "UPDATE Invoices SET PaymentStatus = ?, UserID = ? WHERE InvoiceID = ?";
-        PreparedStatement stmt = conn.prepareStatement(sql);
-        stmt.setString(1, status);
-        
-        if (SessionManager.getInstance().isLoggedIn()) {
-            stmt.setInt(2, SessionManager.getInstance().getCurrentUser().getUserID());
-        } else {
-            stmt.setNull(2, java.sql.Types.INTEGER);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, status);
+            
+            if (SessionManager.getInstance().isLoggedIn()) {
+                stmt.setInt(2, SessionManager.getInstance().getCurrentUser().getUserID());
+            } else {
+                stmt.setNull(2, java.sql.Types.INTEGER);
+            }
+            
+            stmt.setInt(3, invoiceId);
+            stmt.executeUpdate();
         }
-        
-        stmt.setInt(3, invoiceId);
-        stmt.executeUpdate();
     }
     
     public boolean isPaymentSuccessful() {
@@ -466,5 +447,12 @@ public class PaymentDialog extends JDialog {
     public Invoice getInvoice() {
         return invoice;
     }
+    
+    /**
+     * @return Correlation ID of this payment's log lines
+     */
+    public String getCorrelationId() {
+        return correlationId;
+    }
 }
 
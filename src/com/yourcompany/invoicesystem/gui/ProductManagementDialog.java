@@ -6,8 +6,10 @@
 
 package com.yourcompany.invoicesystem.gui;
 
+import com.yourcompany.invoicesystem.cache.ProductCatalogCache;
 import com.yourcompany.invoicesystem.dao.ProductDAO;
 import com.yourcompany.invoicesystem.model.Product;
+import com.yourcompany.invoicesystem.util.Logger;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -88,7 +90,7 @@ public class ProductManagementDialog extends JDialog {
         deleteButton.addActionListener(e -> deleteProduct());
         
         refreshButton = new JButton("Refresh");
-        refreshButton.addActionListener(e -> loadProducts());
+        refreshButton.addActionListener(e -> refreshProducts());
         
         closeButton = new JButton("Close");
         closeButton.addActionListener(e -> dispose());
@@ -102,10 +104,40 @@ public class ProductManagementDialog extends JDialog {
         add(buttonPanel, BorderLayout.SOUTH);
     }
     
+    /**
+     * Reload the catalog from the database (not just the cache), then show it.
+     */
+    private void refreshProducts() {
+        refreshButton.setEnabled(false);
+        SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
+            @Override
+            protected Boolean doInBackground() {
+                return ProductCatalogCache.getInstance().refresh();
+            }
+            
+            @Override
+            protected void done() {
+                refreshButton.setEnabled(true);
+                try {
+                    if (!get()) {
+                        JOptionPane.showMessageDialog(ProductManagementDialog.this,
+                            "Could not reload products from the database; showing the last loaded list.",
+                            "Refresh Failed",
+                            JOptionPane.WARNING_MESSAGE);
+                    }
+                } catch (Exception ex) {
+                    Logger.error("Error refreshing products: " + ex.getMessage(), ex);
+                }
+                loadProducts();
+            }
+        };
+        worker.execute();
+    }
+    
     private void loadProducts() {
         try {
             tableModel.setRowCount(0);
-            List<Product> products = productDAO.getAllProducts();
+            List<Product> products = ProductCatalogCache.getInstance().getAllProducts();
             
             for (Product product : products) {
                 tableModel.addRow(new Object[]{
@@ -131,6 +163,7 @@ public class ProductManagementDialog extends JDialog {
             Product product = dialog.getProduct();
             try {
                 if (productDAO.addProduct(product)) {
+                    ProductCatalogCache.getInstance().upsert(product);
                     JOptionPane.showMessageDialog(this, 
                         "Product added successfully!", 
                         "Success", 
@@ -228,6 +261,7 @@ public class ProductManagementDialog extends JDialog {
         private JTextField nameField;
         private JTextField priceField;
         private JTextField stockField;
+        private JTextField barcodeField;
         
         private boolean confirmed = false;
         private Product product;
@@ -245,7 +279,7 @@ public class ProductManagementDialog extends JDialog {
                 populateFields(existingProduct);
             }
             
-            setSize(400, 300);
+            setSize(400, 340);
             setLocationRelativeTo(parent);
         }
         
@@ -294,6 +328,14 @@ public class ProductManagementDialog extends JDialog {
             stockField = new JTextField(15);
             formPanel.add(stockField, gbc);
             
+            // Barcode (optional)
+            gbc.gridx = 0; gbc.gridy = 4;
+            formPanel.add(new JLabel("Barcode:"), gbc);
+            
+            gbc.gridx = 1;
+            barcodeField = new JTextField(15);
+            formPanel.add(barcodeField, gbc);
+            
             add(formPanel, BorderLayout.CENTER);
             
             // Button panel
@@ -317,6 +359,7 @@ public class ProductManagementDialog extends JDialog {
             nameField.setText(product.getName());
             priceField.setText(product.getPrice().toString());
             stockField.setText(String.valueOf(product.getStock()));
+            barcodeField.setText(product.getBarcode() != null ? product.getBarcode() : "");
         }
         
         private void save() {
@@ -350,7 +393,10 @@ public class ProductManagementDialog extends JDialog {
                     return;
                 }
                 
+                String barcode = barcodeField.getText().trim();
+                
                 product = new Product(id, name, price, stock);
+                product.setBarcode(barcode.isEmpty() ? null : barcode);
                 confirmed = true;
                 dispose();
                 
@@ -6,11 +6,13 @@
 
 package com.yourcompany.invoicesystem.gui;
 
+import com.yourcompany.invoicesystem.cache.ProductCatalogCache;
+import com.yourcompany.invoicesystem.dao.DailySalesDAO;
 import com.yourcompany.invoicesystem.dao.InvoiceDAO;
 import com.yourcompany.invoicesystem.dao.InvoiceItemDAO;
-import com.yourcompany.invoicesystem.dao.ProductDAO;
+import com.yourcompany.invoicesystem.event.ReturnProcessed;
+import com.yourcompany.invoicesystem.event.SalesEventBus;
 import com.yourcompany.invoicesystem.model.InvoiceItem;
-import com.yourcompany.invoicesystem.model.Product;
 import com.yourcompany.invoicesystem.util.DBUtil;
 import com.yourcompany.invoicesystem.util.Logger;
 import com.yourcompany.invoicesystem.util.SessionManager;
@@ -19,11 +21,17 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Returns and Refunds Dialog
@@ -227,12 +235,10 @@ public class ReturnsDialog extends JDialog {
         
         try (Connection conn = DBUtil.getConnection()) {
             InvoiceItemDAO itemDAO = new InvoiceItemDAO();
-            ProductDAO productDAO = new ProductDAO();
-            List<InvoiceItem> items = itemDAO.getInvoiceItemsByInvoiceId(invoiceId);
+            List<InvoiceItem> items = itemDAO.getInvoiceItemsWithProductNames(invoiceId);
             
             for (InvoiceItem item : items) {
-                Product product = productDAO.getProductById(item.getProductID());
-                String productName = product != null ? product.getProductName() : "Unknown";
+                String productName = item.getProductName() != null ? item.getProductName() : "Unknown";
                 
                 double subtotal = item.getQuantity() * item.getUnitPrice().doubleValue();
                 
@@ -308,11 +314,14 @@ public class ReturnsDialog extends JDialog {
         Connection conn = null;
         try {
             conn = DBUtil.getConnection(false);
+            // Set ReturnDate here rather than take the database's CURRENT_TIMESTAMP, whose clock or
+            // time zone can differ from ours: DailySales is booked, and rebuilt, on this same day
+            LocalDateTime returnedAt = LocalDateTime.now();
             
             for (ReturnItem item : returnItems) {
                 // Insert return record
-                String returnSql = "INSERT INTO Returns (InvoiceID, ProductID, Quantity, RefundAmount, Reason, ProcessedByUserID) " +
-                                 "VALUES (?, ?, ?, ?, ?, ?)";
+                String returnSql = "INSERT INTO Returns (InvoiceID, ProductID, Quantity, RefundAmount, Reason, ProcessedByUserID, ReturnDate) " +
+                                 "VALUES (?, ?, ?, ?, ?, ?, ?)";
                 PreparedStatement stmt = conn.prepareStatement(returnSql);
                 stmt.setInt(1, currentInvoiceId);
                 stmt.setInt(2, item.productId);
@@ -325,18 +334,46 @@ public class ReturnsDialog extends JDialog {
                 } else {
                     stmt.setNull(6, java.sql.Types.INTEGER);
                 }
+                stmt.setTimestamp(7, Timestamp.valueOf(returnedAt));
                 
                 stmt.executeUpdate();
                 
                 // Restore stock
-                String updateStock = "UPDATE Products SET StockQuantity = StockQuantity + ? WHERE ProductID = ?";
+                String updateStock = "UPDATE Products SET Stock = Stock + ? WHERE ProductID = ?";
                 PreparedStatement updateStmt = conn.prepareStatement(updateStock);
                 updateStmt.setInt(1, item.quantity);
                 updateStmt.setInt(2, item.productId);
                 updateStmt.executeUpdate();
             }
             
-            conn.commit();
+            // Book the refund in today's dashboard totals, in the same transaction
+            BigDecimal refundTotal = BigDecimal.ZERO;
+            int returnedUnits = 0;
+            for (ReturnItem item : returnItems) {
+                // Same per-row rounding as the DECIMAL(10,2) RefundAmount column
+                refundTotal = refundTotal.add(BigDecimal.valueOf(item.quantity * item.unitPrice)
+                        .setScale(2, RoundingMode.HALF_UP));
+                returnedUnits += item.quantity;
+            }
+            Integer userId = SessionManager.getInstance().isLoggedIn()
+                    ? SessionManager.getInstance().getCurrentUser().getUserID() : null;
+            LocalDate returnDate = returnedAt.toLocalDate();
+            new DailySalesDAO().recordReturn(conn, returnDate, userId, refundTotal, returnedUnits);
+            
+            SalesEventBus bus = SalesEventBus.getInstance();
+            bus.beginCommit();
+            try {
+                conn.commit();
+                
+                Map<Integer, Integer> restocked = new HashMap<>();
+                for (ReturnItem item : returnItems) {
+                    restocked.merge(item.productId, item.quantity, Integer::sum);
+                }
+                ProductCatalogCache.getInstance().applyStockDeltas(restocked);
+                bus.publish(new ReturnProcessed(currentInvoiceId, returnDate, refundTotal, returnedUnits));
+            } finally {
+                bus.endCommit();
+            }
             
             Logger.info("Processed return for invoice " + currentInvoiceId + ", refund: €" + refundAmount);
             
@@ -15,6 +15,7 @@ public class InvoiceItem {
     private int productID; // Foreign key to link to Product table
     private int quantity;
     private BigDecimal priceAtSale; // Price of the product when this specific sale occurred
+    private String productName; // Not a column; filled by joined queries, null otherwise
 
     // Default constructor
     public InvoiceItem() {
@@ -71,6 +72,14 @@ public class InvoiceItem {
         this.priceAtSale = priceAtSale;
     }
 
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
     // Alias method for compatibility
     public BigDecimal getUnitPrice() {
         return priceAtSale;
@@ -0,0 +1,64 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only list view of an invoice: header fields plus item totals,
+ * loaded in one aggregate query instead of fetching every item row.
+ */
+public class InvoiceSummary {
+
+    private final int invoiceID;
+    private final LocalDate invoiceDate;
+    private final BigDecimal totalAmount;
+    private final String paymentStatus;
+    private final int itemCount;       // number of InvoiceItems rows (lines)
+    private final int totalQuantity;   // sum of Quantity over those lines
+
+    public InvoiceSummary(int invoiceID, LocalDate invoiceDate, BigDecimal totalAmount, String paymentStatus,
+                          int itemCount, int totalQuantity) {
+        this.invoiceID = invoiceID;
+        this.invoiceDate = invoiceDate;
+        this.totalAmount = totalAmount;
+        this.paymentStatus = paymentStatus;
+        this.itemCount = itemCount;
+        this.totalQuantity = totalQuantity;
+    }
+
+    public int getInvoiceID() {
+        return invoiceID;
+    }
+
+    public LocalDate getInvoiceDate() {
+        return invoiceDate;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public String getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public int getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    @Override
+    public String toString() {
+        return "InvoiceSummary [invoiceID=" + invoiceID + ", invoiceDate=" + invoiceDate + ", totalAmount=" + totalAmount
+                + ", paymentStatus=" + paymentStatus + ", itemCount=" + itemCount + ", totalQuantity=" + totalQuantity + "]";
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.model;
+
+/**
+ * A row of the PaymentMethods table.
+ * Immutable because instances are shared through the ReferenceDataCache.
+ */
+public class PaymentMethod {
+    
+    private final int paymentMethodID;
+    private final String methodName;
+    private final boolean active;
+    
+    public PaymentMethod(int paymentMethodID, String methodName, boolean active) {
+        this.paymentMethodID = paymentMethodID;
+        this.methodName = methodName;
+        this.active = active;
+    }
+    
+    public int getPaymentMethodID() {
+        return paymentMethodID;
+    }
+    
+    public String getMethodName() {
+        return methodName;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    @Override
+    public String toString() {
+        return methodName;
+    }
+}
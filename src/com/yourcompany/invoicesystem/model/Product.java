@@ -14,7 +14,10 @@ public class Product {
     private int productID;
     private String name;
     private BigDecimal price; // Use BigDecimal for money
-    private int stock;
+    private volatile int stock; // ProductCatalogCache updates cached products' stock in place
+    private String barcode;
+    private int lowStockThreshold = 10;
+    private String category;
 
     // Constructor (you might have multiple constructors later)
     public Product() {
@@ -28,6 +31,17 @@ public class Product {
         this.stock = stock;
     }
 
+    // Copy constructor
+    public Product(Product other) {
+        this.productID = other.productID;
+        this.name = other.name;
+        this.price = other.price;
+        this.stock = other.stock;
+        this.barcode = other.barcode;
+        this.lowStockThreshold = other.lowStockThreshold;
+        this.category = other.category;
+    }
+
     // Getter and Setter methods for each field
     public int getProductID() {
         return productID;
@@ -79,15 +93,27 @@ public class Product {
     }
     
     public int getLowStockThreshold() {
-        return 10; // Default threshold
+        return lowStockThreshold;
+    }
+
+    public void setLowStockThreshold(int lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
     }
     
     public String getBarcode() {
-        return null; // Not implemented yet
+        return barcode;
+    }
+
+    public void setBarcode(String barcode) {
+        this.barcode = barcode;
     }
     
     public String getCategory() {
-        return null; // Not implemented yet
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
     }
 
     // Optional: Override toString() for easy printing/debugging
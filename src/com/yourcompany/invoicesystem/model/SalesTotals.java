@@ -0,0 +1,36 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Invoice count and revenue over a set of invoices, computed in SQL.
+ */
+public class SalesTotals {
+
+    private final int invoiceCount;
+    private final BigDecimal totalAmount;
+
+    public SalesTotals(int invoiceCount, BigDecimal totalAmount) {
+        this.invoiceCount = invoiceCount;
+        this.totalAmount = totalAmount;
+    }
+
+    public int getInvoiceCount() {
+        return invoiceCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesTotals [invoiceCount=" + invoiceCount + ", totalAmount=" + totalAmount + "]";
+    }
+}
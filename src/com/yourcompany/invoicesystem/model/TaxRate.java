@@ -0,0 +1,59 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.model;
+
+import java.math.BigDecimal;
+
+/**
+ * A row of the TaxConfiguration table.
+ * Immutable because instances are shared through the ReferenceDataCache.
+ */
+public class TaxRate {
+    
+    private final int taxID;
+    private final String taxName;
+    private final BigDecimal rate;
+    private final boolean active;
+    private final String appliedBy; // PERCENTAGE or FIXED
+    
+    public TaxRate(int taxID, String taxName, BigDecimal rate, boolean active, String appliedBy) {
+        this.taxID = taxID;
+        this.taxName = taxName;
+        this.rate = rate;
+        this.active = active;
+        this.appliedBy = appliedBy;
+    }
+    
+    public int getTaxID() {
+        return taxID;
+    }
+    
+    public String getTaxName() {
+        return taxName;
+    }
+    
+    public BigDecimal getRate() {
+        return rate;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public String getAppliedBy() {
+        return appliedBy;
+    }
+    
+    public boolean isPercentage() {
+        return !"FIXED".equalsIgnoreCase(appliedBy);
+    }
+    
+    @Override
+    public String toString() {
+        return taxName + " (" + rate + (isPercentage() ? "%" : "") + ")";
+    }
+}
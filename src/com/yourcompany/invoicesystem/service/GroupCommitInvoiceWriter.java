@@ -0,0 +1,381 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.service;
+
+import com.yourcompany.invoicesystem.cache.ProductCatalogCache;
+import com.yourcompany.invoicesystem.config.ConfigManager;
+import com.yourcompany.invoicesystem.exception.BusinessLogicException;
+import com.yourcompany.invoicesystem.exception.InsufficientStockException;
+import com.yourcompany.invoicesystem.event.SalesEventBus;
+import com.yourcompany.invoicesystem.model.Invoice;
+import com.yourcompany.invoicesystem.model.InvoiceItem;
+import com.yourcompany.invoicesystem.util.DBUtil;
+import com.yourcompany.invoicesystem.util.LogContext;
+import com.yourcompany.invoicesystem.util.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces checkouts from several registers into one database transaction.
+ *
+ * At peak every sale is its own commit, and every commit is its own redo log
+ * flush on the MySQL side. With group commit enabled, checkouts arriving within
+ * checkout.group.commit.window.ms (or until checkout.group.commit.max.batch are
+ * queued) are written by a single writer thread in one transaction:
+ *
+ * - Each checkout runs behind its own savepoint. A checkout that fails (short
+ *   stock, bad data, failing payment step) is rolled back to its savepoint and
+ *   only that caller gets the error.
+ * - If the group transaction itself fails (commit error, deadlock, lost
+ *   connection), every checkout that hadn't already failed is retried on its
+ *   own transaction, so one poisoned invoice can't sink the rest.
+ * - Callers block until their own invoice is committed and get their own InvoiceID.
+ *   They wait at most checkout.group.commit.timeout.seconds; every queued checkout
+ *   is completed or failed even if the writer hits an unexpected error.
+ *
+ * Queue depth and batch size metrics are exposed for tuning the window.
+ */
+public class GroupCommitInvoiceWriter {
+
+    private static volatile GroupCommitInvoiceWriter instance;
+
+    private final InvoiceService invoiceService;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final long timeoutSeconds;
+    private final LinkedBlockingQueue<PendingCheckout> queue = new LinkedBlockingQueue<>();
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong checkouts = new AtomicLong();
+    private final AtomicLong failedCheckouts = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile int maxObservedBatchSize;
+
+    /**
+     * @return true if checkout.group.commit.enabled is set in config.properties
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getBoolean("checkout.group.commit.enabled", false);
+    }
+
+    public static GroupCommitInvoiceWriter getInstance() {
+        if (instance == null) {
+            synchronized (GroupCommitInvoiceWriter.class) {
+                if (instance == null) {
+                    instance = new GroupCommitInvoiceWriter(new InvoiceService(),
+                            ConfigManager.getInt("checkout.group.commit.window.ms", 3),
+                            ConfigManager.getInt("checkout.group.commit.max.batch", 32),
+                            ConfigManager.getInt("checkout.group.commit.timeout.seconds", 30));
+                }
+            }
+        }
+        return instance;
+    }
+
+    GroupCommitInvoiceWriter(InvoiceService invoiceService, int windowMillis, int maxBatch, int timeoutSeconds) {
+        this.invoiceService = invoiceService;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+        this.maxBatch = Math.max(1, maxBatch);
+        this.timeoutSeconds = Math.max(1, timeoutSeconds);
+
+        Thread writer = new Thread(this::writeLoop, "invoice-group-commit");
+        writer.setDaemon(true);
+        writer.start();
+        Logger.info("Group commit enabled (window: " + windowMillis + " ms, max batch: " + this.maxBatch + ")");
+    }
+
+    /**
+     * Queue a checkout and wait until it is committed or has failed.
+     *
+     * @return The saved invoice with its InvoiceID set
+     * @throws BusinessLogicException if this checkout failed; other checkouts in the group are unaffected
+     */
+    public Invoice checkout(Invoice invoice, List<InvoiceItem> items, InvoiceService.TransactionStep extraWork)
+            throws BusinessLogicException {
+        PendingCheckout pending = new PendingCheckout(invoice, items, extraWork);
+        queue.add(pending);
+        try {
+            return pending.result.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw abandon(pending, "Interrupted while waiting for invoice to be saved", e);
+        } catch (TimeoutException e) {
+            throw abandon(pending, "Invoice was not saved within " + timeoutSeconds + " s", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BusinessLogicException) {
+                throw (BusinessLogicException) cause;
+            }
+            throw new BusinessLogicException("Failed to create invoice: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Give up waiting for a checkout. If the writer hasn't picked it up yet it is
+     * withdrawn and never written; otherwise its outcome is not known yet.
+     */
+    private BusinessLogicException abandon(PendingCheckout pending, String message, Exception cause) {
+        if (queue.remove(pending)) {
+            pending.fail(new BusinessLogicException(message, cause));
+            return new BusinessLogicException(message + "; it was not saved", cause);
+        }
+        Logger.error(message + " (group commit writer busy, queue depth " + queue.size() + ")");
+        return new BusinessLogicException(message + ". It may still be saved: check the invoice history "
+                + "before trying again", cause);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxObservedBatchSize;
+    }
+
+    /**
+     * @return Average number of checkouts per group transaction
+     */
+    public double getAverageBatchSize() {
+        long batchCount = batches.get();
+        return batchCount == 0 ? 0.0 : (double) checkouts.get() / batchCount;
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getFailedCheckoutCount() {
+        return failedCheckouts.get();
+    }
+
+    /**
+     * @return Number of groups whose transaction failed and were retried one invoice at a time
+     */
+    public long getFallbackCount() {
+        return fallbacks.get();
+    }
+
+    /**
+     * Runs for the life of the application: registers wait on this thread, so it
+     * survives interrupts and unexpected errors. writeBatch settles every checkout
+     * of a batch, whatever goes wrong.
+     */
+    private void writeLoop() {
+        while (true) {
+            try {
+                List<PendingCheckout> batch = nextBatch();
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Logger.warn("Group commit writer interrupted while idle; continuing");
+            } catch (RuntimeException | Error e) {
+                Logger.error("Unexpected error in group commit writer: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Block for the first checkout, then collect more until the window closes or the batch is full.
+     */
+    private List<PendingCheckout> nextBatch() throws InterruptedException {
+        List<PendingCheckout> batch = new ArrayList<>();
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatch) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                queue.drainTo(batch, maxBatch - batch.size());
+                break;
+            }
+            PendingCheckout next;
+            try {
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                break; // write what we have rather than drop it
+            }
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void writeBatch(List<PendingCheckout> batch) {
+        long start = System.nanoTime();
+        List<PendingCheckout> written = new ArrayList<>();
+        boolean committed = false;
+
+        SalesEventBus.getInstance().beginCommit();
+        try {
+            try (Connection conn = DBUtil.getConnection(false)) {
+                try {
+                    for (PendingCheckout pending : batch) {
+                        writeOne(conn, pending, written);
+                    }
+                    conn.commit();
+                    committed = true;
+                } catch (SQLException | RuntimeException e) {
+                    rollbackQuietly(conn);
+                    throw e;
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (committed) {
+                    // Only closing the connection failed; the group is saved
+                    Logger.warn("Error closing group commit connection: " + e.getMessage());
+                } else {
+                    Logger.warn("Group commit of " + batch.size() + " invoices failed, retrying individually: "
+                            + e.getMessage());
+                    fallbacks.incrementAndGet();
+                    retryIndividually(batch);
+                    return;
+                }
+            }
+            committed(written);
+        } finally {
+            SalesEventBus.getInstance().endCommit();
+            // Nobody may be left waiting, whatever was thrown above
+            for (PendingCheckout pending : batch) {
+                if (committed && written.contains(pending)) {
+                    pending.result.complete(pending.invoice);
+                } else if (!pending.result.isDone()) {
+                    pending.fail(new BusinessLogicException("Failed to create invoice: group commit writer error"));
+                }
+            }
+            recordBatch(batch.size(), start);
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void writeOne(Connection conn, PendingCheckout pending, List<PendingCheckout> written) throws SQLException {
+        try (LogContext.Scope scope = LogContext.restore(pending.logContext)) {
+            Savepoint savepoint = conn.setSavepoint();
+            try {
+                invoiceService.writeCheckout(conn, pending.invoice, pending.items, pending.extraWork, pending.timer);
+                conn.releaseSavepoint(savepoint);
+                written.add(pending);
+            } catch (BusinessLogicException | InsufficientStockException e) {
+                // Business failure: only this checkout is rolled back
+                conn.rollback(savepoint);
+                pending.fail(e instanceof BusinessLogicException ? e : new BusinessLogicException(e.getMessage(), e));
+            } catch (SQLException e) {
+                // If the server already rolled back the whole transaction (deadlock), this
+                // rollback throws and the group falls back to one transaction per checkout
+                conn.rollback(savepoint);
+                Logger.error("Checkout failed in group commit: " + e.getMessage(), e);
+                pending.fail(new BusinessLogicException("Failed to create invoice: " + e.getMessage(), e));
+            }
+        }
+    }
+
+    /**
+     * Post-commit work for a committed group. The invoices are saved, so a failure
+     * here is logged and never reaches the callers, and one checkout's failure
+     * doesn't skip the others.
+     */
+    @SuppressWarnings("try")
+    private void committed(List<PendingCheckout> written) {
+        // One catalog snapshot for the whole group rather than one per invoice
+        Map<Integer, Integer> stockDeltas = new HashMap<>();
+        for (PendingCheckout pending : written) {
+            InvoiceService.stockDeltas(pending.items, stockDeltas);
+        }
+        try {
+            ProductCatalogCache.getInstance().applyStockDeltas(stockDeltas);
+        } catch (RuntimeException e) {
+            Logger.error("Error updating product cache after group commit: " + e.getMessage(), e);
+        }
+
+        for (PendingCheckout pending : written) {
+            pending.timer.mark("groupCommit");
+            try (LogContext.Scope scope = LogContext.restore(pending.logContext)) {
+                LogContext.set(LogContext.INVOICE_ID, pending.invoice.getInvoiceID());
+                invoiceService.checkoutCommitted(pending.invoice, pending.items, pending.timer);
+            } catch (RuntimeException e) {
+                Logger.error("Error after committing invoice #" + pending.invoice.getInvoiceID() + ": "
+                        + e.getMessage(), e);
+            }
+            pending.result.complete(pending.invoice);
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void retryIndividually(List<PendingCheckout> batch) {
+        for (PendingCheckout pending : batch) {
+            if (pending.result.isDone()) {
+                continue; // already failed on its own savepoint
+            }
+            try (LogContext.Scope scope = LogContext.restore(pending.logContext)) {
+                pending.result.complete(
+                        invoiceService.checkoutInOwnTransaction(pending.invoice, pending.items, pending.extraWork));
+            } catch (BusinessLogicException | RuntimeException e) {
+                pending.fail(e);
+            }
+        }
+    }
+
+    private void recordBatch(int size, long startNanos) {
+        batches.incrementAndGet();
+        checkouts.addAndGet(size);
+        lastBatchSize = size;
+        if (size > maxObservedBatchSize) {
+            maxObservedBatchSize = size;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        Logger.debug(() -> String.format("Group commit: %d invoices in %.1f ms, queue depth %d, average batch %.1f",
+                size, elapsedNanos / 1_000_000.0, queue.size(), getAverageBatchSize()));
+    }
+
+    private void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            Logger.debug("Rollback after failed group commit also failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One queued checkout and the future its caller waits on.
+     */
+    private final class PendingCheckout {
+        private final Invoice invoice;
+        private final List<InvoiceItem> items;
+        private final InvoiceService.TransactionStep extraWork;
+        private final InvoiceService.PhaseTimer timer = new InvoiceService.PhaseTimer();
+        private final CompletableFuture<Invoice> result = new CompletableFuture<>();
+        // The register's log context, so the writer thread's lines for this checkout carry it
+        private final Map<String, Object> logContext = LogContext.snapshot();
+
+        PendingCheckout(Invoice invoice, List<InvoiceItem> items, InvoiceService.TransactionStep extraWork) {
+            this.invoice = invoice;
+            this.items = items;
+            this.extraWork = extraWork;
+        }
+
+        void fail(Throwable cause) {
+            failedCheckouts.incrementAndGet();
+            invoice.setInvoiceID(0);
+            result.completeExceptionally(cause);
+        }
+    }
+}
@@ -6,20 +6,35 @@
 
 package com.yourcompany.invoicesystem.service;
 
+import com.yourcompany.invoicesystem.cache.ProductCatalogCache;
+import com.yourcompany.invoicesystem.config.ConfigManager;
+import com.yourcompany.invoicesystem.dao.DailySalesDAO;
 import com.yourcompany.invoicesystem.dao.InvoiceDAO;
 import com.yourcompany.invoicesystem.dao.InvoiceItemDAO;
 import com.yourcompany.invoicesystem.dao.ProductDAO;
+import com.yourcompany.invoicesystem.event.InvoiceCommitted;
+import com.yourcompany.invoicesystem.event.SalesEventBus;
 import com.yourcompany.invoicesystem.exception.BusinessLogicException;
+import com.yourcompany.invoicesystem.exception.InsufficientStockException;
 import com.yourcompany.invoicesystem.model.Invoice;
 import com.yourcompany.invoicesystem.model.InvoiceItem;
 import com.yourcompany.invoicesystem.model.Product;
+import com.yourcompany.invoicesystem.util.DBUtil;
+import com.yourcompany.invoicesystem.util.LogContext;
+import com.yourcompany.invoicesystem.util.Logger;
 import com.yourcompany.invoicesystem.util.SessionManager;
 import com.yourcompany.invoicesystem.validation.ValidationException;
 import com.yourcompany.invoicesystem.validation.Validator;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service layer for Invoice business logic
@@ -30,11 +45,22 @@ public class InvoiceService {
     private final InvoiceDAO invoiceDAO;
     private final InvoiceItemDAO invoiceItemDAO;
     private final ProductDAO productDAO;
+    private final DailySalesDAO dailySalesDAO;
     
     public InvoiceService() {
         this.invoiceDAO = new InvoiceDAO();
         this.invoiceItemDAO = new InvoiceItemDAO();
         this.productDAO = new ProductDAO();
+        this.dailySalesDAO = new DailySalesDAO();
+    }
+    
+    /**
+     * Callback that runs inside the checkout transaction after the invoice, its
+     * items and the stock changes have been written (e.g. saving payment records).
+     */
+    @FunctionalInterface
+    public interface TransactionStep {
+        void execute(Connection conn, int invoiceId) throws SQLException;
     }
     
     /**
@@ -48,27 +74,14 @@ public class InvoiceService {
     public Invoice createInvoice(List<InvoiceItem> items, BigDecimal discountPercentage, BigDecimal taxAmount) 
             throws BusinessLogicException {
         try {
-            // Validate inputs
             if (items == null || items.isEmpty()) {
                 throw new BusinessLogicException("Invoice must contain at least one item");
             }
             
-            Validator.validatePercentage(discountPercentage != null ? discountPercentage : BigDecimal.ZERO);
-            Validator.validateAmount(taxAmount != null ? taxAmount : BigDecimal.ZERO);
-            
-            // Validate stock availability for all items
-            for (InvoiceItem item : items) {
-                Product product = productDAO.getProductById(item.getProductID());
-                if (product == null) {
-                    throw new BusinessLogicException("Product not found with ID: " + item.getProductID());
-                }
-                
-                if (product.getStock() < item.getQuantity()) {
-                    throw new BusinessLogicException(
-                        "Insufficient stock for product: " + product.getName() + 
-                        ". Available: " + product.getStock() + ", Requested: " + item.getQuantity());
-                }
-            }
+            BigDecimal discount = discountPercentage != null ? discountPercentage : BigDecimal.ZERO;
+            BigDecimal tax = taxAmount != null ? taxAmount : BigDecimal.ZERO;
+            Validator.validatePercentage(discount);
+            Validator.validateAmount(tax);
             
             // Calculate total
             BigDecimal subtotal = BigDecimal.ZERO;
@@ -79,47 +92,245 @@ public class InvoiceService {
             }
             
             // Apply discount
-            BigDecimal discountAmount = BigDecimal.ZERO;
-            if (discountPercentage != null && discountPercentage.compareTo(BigDecimal.ZERO) > 0) {
-                discountAmount = subtotal.multiply(discountPercentage)
-                    .divide(new BigDecimal("100"), 2, BigDecimal.ROUND_HALF_UP);
-            }
+            BigDecimal discountAmount = subtotal.multiply(discount)
+                .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+            BigDecimal totalAmount = subtotal.subtract(discountAmount).add(tax);
             
-            BigDecimal totalAmount = subtotal.subtract(discountAmount);
-            if (taxAmount != null) {
-                totalAmount = totalAmount.add(taxAmount);
-            }
-            
-            // Create invoice
-            Invoice invoice = new Invoice();
-            invoice.setInvoiceDate(LocalDateTime.now());
-            invoice.setTotalAmount(totalAmount);
-            invoice.setDiscountPercentage(discountPercentage != null ? discountPercentage : BigDecimal.ZERO);
-            invoice.setTaxAmount(taxAmount != null ? taxAmount : BigDecimal.ZERO);
-            invoice.setPaymentStatus("PENDING");
-            invoice.setUserID(SessionManager.getCurrentUser().getUserID());
-            
-            // Save invoice
-            int invoiceId = invoiceDAO.addInvoice(invoice);
-            invoice.setInvoiceID(invoiceId);
+            Invoice invoice = new Invoice.Builder()
+                .invoiceDate(LocalDate.now())
+                .totalAmount(totalAmount)
+                .discountPercentage(discount.doubleValue())
+                .taxAmount(tax.doubleValue())
+                .paymentStatus("PENDING")
+                .build();
             
-            // Save items and update stock
-            for (InvoiceItem item : items) {
-                item.setInvoiceID(invoiceId);
-                invoiceItemDAO.addInvoiceItem(item);
-                
-                // Reduce stock
-                Product product = productDAO.getProductById(item.getProductID());
-                product.setStock(product.getStock() - item.getQuantity());
-                productDAO.updateProduct(product);
-            }
-            
-            return invoice;
+            return checkout(invoice, items, null);
             
         } catch (ValidationException e) {
             throw new BusinessLogicException("Validation failed: " + e.getMessage(), e);
-        } catch (Exception e) {
-            throw new BusinessLogicException("Failed to create invoice: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Save an invoice, its items and the stock changes in one transaction.
+     *
+     * Phases: one IN-list fetch of every basket product (existence and stock check),
+     * invoice header insert, lock-ordered batched stock reservation, batched item
+     * insert, the optional extra step, then commit. Any failure rolls everything back.
+     * The time spent in each phase is logged.
+     *
+     * When checkout.group.commit.enabled is set, the work is handed to the
+     * {@link GroupCommitInvoiceWriter} and may share a commit with other registers'
+     * checkouts; the result and any failure are still reported per invoice.
+     *
+     * Log lines of the checkout carry the user, register (checkout.register.id),
+     * correlation ID (kept if the caller set one) and, once assigned, the invoice ID.
+     *
+     * @param invoice Invoice header; InvoiceID is set on success. UserID defaults to the logged-in user.
+     * @param items Invoice items; InvoiceID and InvoiceItemID are set on success
+     * @param extraWork Optional work to run in the same transaction before commit (may be null)
+     * @return The saved invoice
+     * @throws BusinessLogicException if validation fails, stock is insufficient or the database write fails
+     */
+    @SuppressWarnings("try")
+    public Invoice checkout(Invoice invoice, List<InvoiceItem> items, TransactionStep extraWork)
+            throws BusinessLogicException {
+        if (items == null || items.isEmpty()) {
+            throw new BusinessLogicException("Invoice must contain at least one item");
+        }
+        for (InvoiceItem item : items) {
+            if (item.getQuantity() <= 0) {
+                throw new BusinessLogicException("Invalid quantity " + item.getQuantity()
+                    + " for product ID: " + item.getProductID());
+            }
+        }
+        if (invoice.getUserID() == null && SessionManager.getInstance().isLoggedIn()) {
+            invoice.setUserID(SessionManager.getInstance().getCurrentUser().getUserID());
+        }
+        
+        String register = ConfigManager.getString("checkout.register.id", "").trim();
+        Object correlationId = LogContext.get(LogContext.CORRELATION_ID);
+        try (LogContext.Scope scope = LogContext.put(LogContext.USER_ID, invoice.getUserID())
+                .put(LogContext.REGISTER, register.isEmpty() ? null : register)
+                .put(LogContext.CORRELATION_ID, correlationId != null ? correlationId : LogContext.newCorrelationId())) {
+            if (GroupCommitInvoiceWriter.isEnabled()) {
+                return GroupCommitInvoiceWriter.getInstance().checkout(invoice, items, extraWork);
+            }
+            return checkoutInOwnTransaction(invoice, items, extraWork);
+        }
+    }
+    
+    /**
+     * Run one checkout on its own connection and transaction.
+     */
+    Invoice checkoutInOwnTransaction(Invoice invoice, List<InvoiceItem> items, TransactionStep extraWork)
+            throws BusinessLogicException {
+        PhaseTimer timer = new PhaseTimer();
+        // Until the event is out, dashboards loading meanwhile can't tell if their read saw this invoice
+        SalesEventBus.getInstance().beginCommit();
+        try {
+            try (Connection conn = DBUtil.getConnection(false)) {
+                try {
+                    writeCheckout(conn, invoice, items, extraWork, timer);
+                    conn.commit();
+                    timer.mark("commit");
+                } catch (SQLException | BusinessLogicException | RuntimeException e) {
+                    conn.rollback();
+                    invoice.setInvoiceID(0);
+                    throw e;
+                }
+            } catch (InsufficientStockException e) {
+                throw new BusinessLogicException(e.getMessage(), e);
+            } catch (SQLException e) {
+                Logger.error("Checkout failed for " + items.size() + " items: " + e.getMessage(), e);
+                throw new BusinessLogicException("Failed to create invoice: " + e.getMessage(), e);
+            }
+        
+            // The invoice is saved; a failure in the follow-up work must not report the checkout as failed
+            try {
+                ProductCatalogCache.getInstance().applyStockDeltas(stockDeltas(items, new HashMap<>()));
+                checkoutCommitted(invoice, items, timer);
+            } catch (RuntimeException e) {
+                Logger.error("Error after committing invoice #" + invoice.getInvoiceID() + ": " + e.getMessage(), e);
+            }
+            return invoice;
+        } finally {
+            SalesEventBus.getInstance().endCommit();
+        }
+    }
+    
+    /**
+     * Write one checkout on a connection whose transaction the caller controls.
+     * Sets the InvoiceID on success. Does NOT commit or roll back.
+     */
+    void writeCheckout(Connection conn, Invoice invoice, List<InvoiceItem> items, TransactionStep extraWork,
+                       PhaseTimer timer) throws SQLException, BusinessLogicException {
+        // Phase 1: fetch every basket product in one query and check stock up front
+        Map<Integer, Integer> requested = new HashMap<>();
+        for (InvoiceItem item : items) {
+            requested.merge(item.getProductID(), item.getQuantity(), Integer::sum);
+        }
+        Map<Integer, Product> products = productDAO.getProductsByIds(requested.keySet(), conn);
+        for (Map.Entry<Integer, Integer> entry : requested.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                throw new BusinessLogicException("Product not found with ID: " + entry.getKey());
+            }
+            if (product.getStock() < entry.getValue()) {
+                throw new BusinessLogicException(
+                    "Insufficient stock for product: " + product.getName() + 
+                    ". Available: " + product.getStock() + ", Requested: " + entry.getValue());
+            }
+        }
+        timer.mark("fetch");
+        
+        // Phase 2: invoice header
+        int invoiceId = invoiceDAO.saveInvoice(invoice, conn);
+        if (invoiceId <= 0) {
+            throw new SQLException("Creating invoice failed, no ID obtained.");
+        }
+        LogContext.set(LogContext.INVOICE_ID, invoiceId);
+        timer.mark("header");
+        
+        // Phase 3: conditional stock decrement; authoritative if stock changed since phase 1
+        productDAO.reserveStock(requested, conn);
+        timer.mark("stock");
+        
+        // Phase 4: batched item insert
+        for (InvoiceItem item : items) {
+            item.setInvoiceID(invoiceId);
+        }
+        invoiceItemDAO.saveInvoiceItems(items, conn);
+        timer.mark("items");
+        
+        // Phase 5: dashboard rollup, committed or rolled back together with the sale
+        recordDailySale(conn, invoice, items);
+        timer.mark("rollup");
+        
+        if (extraWork != null) {
+            extraWork.execute(conn, invoiceId);
+            timer.mark("extra");
+        }
+        
+        invoice.setInvoiceID(invoiceId);
+    }
+    
+    private void recordDailySale(Connection conn, Invoice invoice, List<InvoiceItem> items) throws SQLException {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        int units = 0;
+        for (InvoiceItem item : items) {
+            subtotal = subtotal.add(item.getPriceAtSale().multiply(BigDecimal.valueOf(item.getQuantity())));
+            units += item.getQuantity();
+        }
+        BigDecimal discount = subtotal.multiply(BigDecimal.valueOf(invoice.getDiscountPercentage()))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        dailySalesDAO.recordSale(conn, invoice.getInvoiceDate(), invoice.getUserID(), invoice.getTotalAmount(),
+                discount, BigDecimal.valueOf(invoice.getTaxAmount()), units);
+    }
+    
+    /**
+     * Add the committed stock change (-quantity per product) of a checkout to deltas,
+     * for {@link ProductCatalogCache#applyStockDeltas(Map)}.
+     */
+    static Map<Integer, Integer> stockDeltas(List<InvoiceItem> items, Map<Integer, Integer> deltas) {
+        for (InvoiceItem item : items) {
+            deltas.merge(item.getProductID(), -item.getQuantity(), Integer::sum);
+        }
+        return deltas;
+    }
+    
+    /**
+     * Log a committed checkout and announce it on the {@link SalesEventBus}.
+     */
+    void checkoutCommitted(Invoice invoice, List<InvoiceItem> items, PhaseTimer timer) {
+        int units = 0;
+        for (InvoiceItem item : items) {
+            units += item.getQuantity();
+        }
+        if (Logger.isEnabled(Logger.Level.INFO)) {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("items", items.size());
+            fields.put("units", units);
+            timer.addTo(fields);
+            Logger.event(Logger.Level.INFO, "Checkout invoice #" + invoice.getInvoiceID(), fields);
+        }
+        SalesEventBus.getInstance().publish(new InvoiceCommitted(invoice.getInvoiceID(), invoice.getInvoiceDate(),
+                invoice.getTotalAmount(), units));
+    }
+    
+    /**
+     * Records elapsed time per named phase for the checkout log line.
+     */
+    static class PhaseTimer {
+        private final long start = System.nanoTime();
+        private final Map<String, Long> phases = new LinkedHashMap<>();
+        private long last = start;
+        
+        void mark(String phase) {
+            long now = System.nanoTime();
+            phases.merge(phase, now - last, Long::sum);
+            last = now;
+        }
+        
+        /**
+         * Add totalMs and one &lt;phase&gt;Ms value per phase, in milliseconds to 0.1 ms.
+         */
+        void addTo(Map<String, Object> fields) {
+            fields.put("totalMs", millis(last - start));
+            for (Map.Entry<String, Long> phase : phases.entrySet()) {
+                fields.put(phase.getKey() + "Ms", millis(phase.getValue()));
+            }
+        }
+        
+        private static double millis(long nanos) {
+            return Math.round(nanos / 100_000.0) / 10.0;
+        }
+        
+        @Override
+        public String toString() {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            addTo(fields);
+            return fields.toString();
         }
     }
     
@@ -6,6 +6,7 @@
 
 package com.yourcompany.invoicesystem.service;
 
+import com.yourcompany.invoicesystem.cache.ProductCatalogCache;
 import com.yourcompany.invoicesystem.dao.ProductDAO;
 import com.yourcompany.invoicesystem.exception.BusinessLogicException;
 import com.yourcompany.invoicesystem.model.Product;
@@ -22,9 +23,11 @@ import java.util.List;
 public class ProductService {
     
     private final ProductDAO productDAO;
+    private final ProductCatalogCache catalog;
     
     public ProductService() {
         this.productDAO = new ProductDAO();
+        this.catalog = ProductCatalogCache.getInstance();
     }
     
     /**
@@ -43,11 +46,8 @@ public class ProductService {
             Validator.validateQuantity(stock);
             
             // Check for duplicate product name
-            List<Product> existingProducts = productDAO.getAllProducts();
-            for (Product p : existingProducts) {
-                if (p.getName().equalsIgnoreCase(name.trim())) {
-                    throw new BusinessLogicException("Product with name '" + name + "' already exists");
-                }
+            if (catalog.getProductByName(name) != null) {
+                throw new BusinessLogicException("Product with name '" + name + "' already exists");
             }
             
             // Create product
@@ -56,7 +56,9 @@ public class ProductService {
             product.setPrice(price);
             product.setStock(stock);
             
-            productDAO.addProduct(product);
+            if (productDAO.addProduct(product)) {
+                catalog.upsert(product);
+            }
             return product;
             
         } catch (ValidationException e) {
@@ -156,7 +158,7 @@ public class ProductService {
      */
     public List<Product> getAllProducts() throws BusinessLogicException {
         try {
-            return productDAO.getAllProducts();
+            return catalog.getAllProducts();
         } catch (Exception e) {
             throw new BusinessLogicException("Failed to retrieve products: " + e.getMessage(), e);
         }
@@ -195,10 +197,7 @@ public class ProductService {
      */
     public List<Product> getLowStockProducts() throws BusinessLogicException {
         try {
-            List<Product> allProducts = productDAO.getAllProducts();
-            return allProducts.stream()
-                .filter(this::isLowStock)
-                .toList();
+            return catalog.getLowStockProducts();
         } catch (Exception e) {
             throw new BusinessLogicException("Failed to retrieve low stock products: " + e.getMessage(), e);
         }
@@ -6,10 +6,14 @@
 
 package com.yourcompany.invoicesystem.servlets;
 
+import com.yourcompany.invoicesystem.dao.InvoiceCursor;
 import com.yourcompany.invoicesystem.dao.InvoiceDAO;
+import com.yourcompany.invoicesystem.dao.InvoiceFilter;
 import com.yourcompany.invoicesystem.dao.InvoiceItemDAO;
+import com.yourcompany.invoicesystem.dao.InvoicePage;
 import com.yourcompany.invoicesystem.model.Invoice;
 import com.yourcompany.invoicesystem.model.InvoiceItem;
+import com.yourcompany.invoicesystem.model.InvoiceSummary;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -18,6 +22,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
@@ -31,6 +36,7 @@ public class ViewInvoicesServlet extends HttpServlet {
     private InvoiceDAO invoiceDAO;
     private InvoiceItemDAO invoiceItemDAO;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMM yyyy");
+    private static final int PAGE_SIZE = 50;
     
     @Override
     public void init() throws ServletException {
@@ -42,7 +48,7 @@ public class ViewInvoicesServlet extends HttpServlet {
     /**
      * Handles GET requests for viewing invoices.
      * URL patterns:
-     * - /invoices - Lists all invoices
+     * - /invoices - Lists invoices, newest first, PAGE_SIZE per page (?after=cursor for the next page)
      * - /invoices/{id} - Shows details of specific invoice
      */
     @Override
@@ -56,8 +62,8 @@ public class ViewInvoicesServlet extends HttpServlet {
         
         try {
             if (pathInfo == null || pathInfo.equals("/")) {
-                // Show all invoices
-                showAllInvoices(out);
+                // Show one page of invoices
+                showAllInvoices(out, InvoiceCursor.parse(request.getParameter("after")));
             } else {
                 // Show specific invoice details
                 String[] pathParts = pathInfo.split("/");
@@ -77,10 +83,11 @@ public class ViewInvoicesServlet extends HttpServlet {
     }
     
     /**
-     * Displays a list of all invoices.
+     * Displays one page of invoices, starting after the given cursor.
      */
-    private void showAllInvoices(PrintWriter out) {
-        List<Invoice> invoices = invoiceDAO.getAllInvoices();
+    private void showAllInvoices(PrintWriter out, InvoiceCursor after) throws SQLException {
+        InvoicePage<InvoiceSummary> page = invoiceDAO.getInvoiceSummariesPage(after, PAGE_SIZE, InvoiceFilter.NONE);
+        List<InvoiceSummary> invoices = page.getRows();
         
         out.println("<!DOCTYPE html>");
         out.println("<html>");
@@ -109,14 +116,15 @@ public class ViewInvoicesServlet extends HttpServlet {
         } else {
             out.println("<table>");
             out.println("<thead>");
-            out.println("<tr><th>Invoice ID</th><th>Date</th><th>Total Amount</th><th>Action</th></tr>");
+            out.println("<tr><th>Invoice ID</th><th>Date</th><th>Items</th><th>Total Amount</th><th>Action</th></tr>");
             out.println("</thead>");
             out.println("<tbody>");
             
-            for (Invoice invoice : invoices) {
+            for (InvoiceSummary invoice : invoices) {
                 out.println("<tr>");
                 out.println("<td>#" + invoice.getInvoiceID() + "</td>");
                 out.println("<td>" + invoice.getInvoiceDate().format(DATE_FORMATTER) + "</td>");
+                out.println("<td>" + invoice.getItemCount() + "</td>");
                 out.println("<td class='amount'>€ " + String.format("%.2f", invoice.getTotalAmount()) + "</td>");
                 out.println("<td><a href='invoices/" + invoice.getInvoiceID() + "'>View Details</a></td>");
                 out.println("</tr>");
@@ -124,7 +132,11 @@ public class ViewInvoicesServlet extends HttpServlet {
             
             out.println("</tbody>");
             out.println("</table>");
-            out.println("<p style='margin-top: 20px; color: #666;'>Total Invoices: " + invoices.size() + "</p>");
+            out.println("<p style='margin-top: 20px; color: #666;'>Showing " + invoices.size() + " invoices");
+            if (page.hasMore()) {
+                out.println(" &middot; <a href='?after=" + page.getNextCursor().toToken() + "'>Older invoices &raquo;</a>");
+            }
+            out.println("</p>");
         }
         
         out.println("</div>");
@@ -0,0 +1,227 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background file appender for {@link Logger}.
+ *
+ * Logging threads only format the line and put it in a bounded lock-free ring
+ * buffer; a single writer thread writes entries in order to the (rolling) log
+ * file and flushes once flushBytes are buffered or flushIntervalMs have passed.
+ * When the buffer is full the {@link OverflowPolicy} decides what the logging
+ * thread does. close() writes and flushes everything still queued.
+ */
+class AsyncLogWriter {
+
+    /**
+     * What a logging thread does when the ring buffer is full.
+     */
+    enum OverflowPolicy {
+        /** Wait until the writer makes room. Nothing is lost. */
+        BLOCK,
+        /** Drop DEBUG messages (counted and reported); wait for room for anything else. */
+        DROP_DEBUG,
+        /** Write the message directly on the logging thread. May appear ahead of queued messages. */
+        SYNC
+    }
+
+    private static final class Entry {
+        final Logger.Level level;
+        final String line;
+        final Throwable throwable;
+
+        Entry(Logger.Level level, String line, Throwable throwable) {
+            this.level = level;
+            this.line = line;
+            this.throwable = throwable;
+        }
+    }
+
+    private final RollingLogFile file;
+    private final OverflowPolicy overflowPolicy;
+    private final int flushBytes;
+    private final long flushIntervalNanos;
+
+    // Multi-producer, single-consumer ring: producers claim a slot by CAS on tail,
+    // the writer thread is the only one that advances head
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object fileLock = new Object();
+    private final Thread writerThread;
+    private volatile boolean writerParked = false;
+    private volatile boolean closing = false;
+
+    private int unflushedBytes = 0;     // guarded by fileLock
+    private long lastFlushNanos = System.nanoTime();
+
+    /**
+     * @param file Log file; stays open when the writer is closed
+     * @param capacity Ring buffer size, rounded up to a power of two
+     * @param overflowPolicy What to do when the buffer is full
+     * @param flushBytes Flush after roughly this many characters
+     * @param flushIntervalMs Flush at least this often while there is unflushed output
+     */
+    AsyncLogWriter(RollingLogFile file, int capacity, OverflowPolicy overflowPolicy, int flushBytes, long flushIntervalMs) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.file = file;
+        this.overflowPolicy = overflowPolicy;
+        this.flushBytes = Math.max(1, flushBytes);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMs));
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+
+        writerThread = new Thread(this::runWriter, "log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Queue a formatted line (and optional stack trace) for the log file.
+     */
+    void append(Logger.Level level, String line, Throwable throwable) {
+        Entry entry = new Entry(level, line, throwable);
+        if (closing) {
+            writeDirect(entry);
+            return;
+        }
+        while (!tryEnqueue(entry)) {
+            if (overflowPolicy == OverflowPolicy.SYNC) {
+                writeDirect(entry);
+                return;
+            }
+            if (overflowPolicy == OverflowPolicy.DROP_DEBUG && level == Logger.Level.DEBUG) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (closing) {
+                writeDirect(entry);
+                return;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(50_000);
+        }
+        if (writerParked) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Stop the writer thread after it has written and flushed everything queued.
+     * Later appends are written directly.
+     *
+     * @param timeoutMs How long to wait for the writer
+     */
+    void close(long timeoutMs) {
+        closing = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (fileLock) {
+            drain(); // anything enqueued while the writer was finishing
+            flush(System.nanoTime());
+        }
+    }
+
+    private boolean tryEnqueue(Entry entry) {
+        while (true) {
+            long t = tail.get();
+            if (t - head.get() >= slots.length()) {
+                return false;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                slots.lazySet((int) t & mask, entry);
+                return true;
+            }
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            boolean wrote;
+            synchronized (fileLock) {
+                wrote = drain();
+                long now = System.nanoTime();
+                if (unflushedBytes >= flushBytes || (unflushedBytes > 0 && now - lastFlushNanos >= flushIntervalNanos)) {
+                    flush(now);
+                }
+            }
+            if (closing && head.get() == tail.get()) {
+                synchronized (fileLock) {
+                    flush(System.nanoTime());
+                }
+                return;
+            }
+            if (!wrote) {
+                writerParked = true;
+                if (head.get() == tail.get() && !closing) {
+                    LockSupport.parkNanos(flushIntervalNanos);
+                }
+                writerParked = false;
+            }
+        }
+    }
+
+    /**
+     * Write queued entries. Caller holds fileLock.
+     * @return true if anything was written
+     */
+    private boolean drain() {
+        boolean wrote = false;
+        long h = head.get();
+        while (h < tail.get()) {
+            int index = (int) h & mask;
+            Entry entry = slots.get(index);
+            if (entry == null) {
+                break; // slot claimed but not yet filled; pick it up on the next pass
+            }
+            slots.lazySet(index, null);
+            head.lazySet(++h);
+            write(entry);
+            wrote = true;
+        }
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            write(new Entry(Logger.Level.WARN, "[log-writer] " + lost + " DEBUG messages dropped (log buffer full)", null));
+        }
+        return wrote;
+    }
+
+    private void writeDirect(Entry entry) {
+        synchronized (fileLock) {
+            write(entry);
+            flush(System.nanoTime());
+        }
+    }
+
+    private void write(Entry entry) {
+        file.write(entry.line, entry.throwable);
+        unflushedBytes += entry.line.length() + 1;
+        if (entry.throwable != null) {
+            unflushedBytes += flushBytes; // stack traces are long; flush soon
+        }
+    }
+
+    private void flush(long now) {
+        if (unflushedBytes > 0) {
+            file.flush();
+        }
+        unflushedBytes = 0;
+        lastFlushNanos = now;
+    }
+}
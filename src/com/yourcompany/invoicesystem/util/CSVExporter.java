@@ -6,14 +6,17 @@
 
 package com.yourcompany.invoicesystem.util;
 
+import com.yourcompany.invoicesystem.dao.InvoiceDAO;
+import com.yourcompany.invoicesystem.dao.InvoiceFilter;
 import com.yourcompany.invoicesystem.model.Invoice;
 import com.yourcompany.invoicesystem.model.InvoiceItem;
 import com.yourcompany.invoicesystem.model.Product;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.text.SimpleDateFormat;
+import java.sql.SQLException;
 import java.util.List;
 
 /**
@@ -21,7 +24,7 @@ import java.util.List;
  * Exports invoices, products, and reports to CSV format
  */
 public class CSVExporter {
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    private static final String INVOICE_HEADER = "Invoice ID,Date,Discount %,Tax Amount,Total Amount,Payment Status";
     
     /**
      * Export invoices to CSV
@@ -32,24 +35,50 @@ public class CSVExporter {
         Logger.info("Exporting " + invoices.size() + " invoices to CSV: " + filePath);
         
         try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            // Header
-            writer.println("Invoice ID,Date,Discount %,Tax Amount,Total Amount,Payment Status");
-            
-            // Data rows
+            writer.println(INVOICE_HEADER);
             for (Invoice invoice : invoices) {
-                writer.printf("%d,\"%s\",%.2f,%.2f,%.2f,\"%s\"%n",
-                        invoice.getInvoiceID(),
-                        DATE_FORMAT.format(invoice.getInvoiceDate()),
-                        invoice.getDiscountPercentage(),
-                        invoice.getTaxAmount(),
-                        invoice.getTotalAmount(),
-                        invoice.getPaymentStatus() != null ? invoice.getPaymentStatus() : "N/A");
+                writeInvoiceRow(writer, invoice);
             }
         }
         
         Logger.info("Invoice export completed");
     }
     
+    /**
+     * Export every invoice matching the filter to CSV, streaming rows from the
+     * database straight to the file so the export doesn't hold all invoices in memory.
+     * @param filter Date range, customer or payment status to export (InvoiceFilter.NONE for all)
+     * @param filePath Output file path
+     * @return Number of invoices written
+     */
+    public static int exportInvoices(InvoiceFilter filter, String filePath) throws IOException {
+        Logger.info("Exporting invoices (" + filter + ") to CSV: " + filePath);
+        
+        int count;
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(filePath)))) {
+            writer.println(INVOICE_HEADER);
+            count = new InvoiceDAO().forEachInvoice(filter, invoice -> writeInvoiceRow(writer, invoice));
+            if (writer.checkError()) {
+                throw new IOException("Error writing " + filePath);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error reading invoices for export: " + e.getMessage(), e);
+        }
+        
+        Logger.info("Invoice export completed (" + count + " invoices)");
+        return count;
+    }
+    
+    private static void writeInvoiceRow(PrintWriter writer, Invoice invoice) {
+        writer.printf("%d,\"%s\",%.2f,%.2f,%.2f,\"%s\"%n",
+                invoice.getInvoiceID(),
+                invoice.getInvoiceDate(),
+                invoice.getDiscountPercentage(),
+                invoice.getTaxAmount(),
+                invoice.getTotalAmount(),
+                invoice.getPaymentStatus() != null ? invoice.getPaymentStatus() : "N/A");
+    }
+    
     /**
      * Export invoice items to CSV
      * @param items List of invoice items
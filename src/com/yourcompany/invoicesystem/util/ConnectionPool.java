@@ -0,0 +1,406 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool backing {@link DBUtil}.
+ *
+ * Connections handed out are thin proxies: calling close() returns the physical
+ * connection to the pool instead of closing the socket, so existing
+ * try-with-resources code in the DAOs works unchanged.
+ *
+ * Features:
+ * - At most maxSize physical connections; borrowers wait up to acquireTimeout
+ * - Validation on borrow (skipped if the connection was used in the last 500 ms)
+ * - Idle eviction and max lifetime, enforced on borrow and by a background sweeper
+ * - The configured query timeout is applied to every statement created
+ * - Per-connection LRU cache of prepared statements (see {@link StatementCache})
+ * - Statements left open by a borrower are closed when the connection is returned
+ */
+public class ConnectionPool {
+
+    // Connections returned this recently are assumed alive and not re-validated
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final int validationTimeoutSeconds;
+    private final int queryTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+
+    /**
+     * Create a pool. No physical connections are opened until first use.
+     *
+     * @param url JDBC URL
+     * @param user Database user
+     * @param password Database password
+     * @param maxSize Maximum number of physical connections
+     * @param acquireTimeoutMillis How long getConnection() waits for a free connection
+     * @param idleTimeoutMillis Idle connections older than this are closed (0 = never)
+     * @param maxLifetimeMillis Connections older than this are retired (0 = never)
+     * @param validationTimeoutSeconds Timeout for Connection.isValid() on borrow
+     * @param queryTimeoutSeconds Statement timeout applied to every statement (0 = none)
+     * @param statementCacheSize Prepared statements cached per connection (0 = no caching)
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long acquireTimeoutMillis, long idleTimeoutMillis, long maxLifetimeMillis,
+                          int validationTimeoutSeconds, int queryTimeoutSeconds, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1: " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = idleTimeoutMillis > 0 ? Math.min(30_000, Math.max(1_000, idleTimeoutMillis / 2)) : 30_000;
+        housekeeper.scheduleWithFixedDelay(this::evictIdleConnections, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection from the pool, opening a new one if none is idle.
+     * The caller must close() it to return it.
+     *
+     * @return A pooled Connection in auto-commit mode
+     * @throws SQLException if no connection becomes available within the acquire timeout
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        if (!acquired) {
+            throw new SQLTransientConnectionException("Timed out after " + acquireTimeoutMillis
+                    + " ms waiting for a database connection (pool size " + maxSize
+                    + ", all in use)");
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return pooled.lease();
+                }
+                discard(pooled);
+            }
+            return openConnection().lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Close all idle connections and stop the background sweeper.
+     * Connections currently in use are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            discard(pooled);
+        }
+        Logger.info("Connection pool shut down (statement cache hits: " + statementCacheHits.get()
+                + ", misses: " + statementCacheMisses.get() + ")");
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    public int getActiveConnections() {
+        return maxSize - permits.availablePermits();
+    }
+
+    public int getThreadsAwaitingConnection() {
+        return permits.getQueueLength();
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     * @return Fraction of prepareStatement() calls served from the cache (0.0 - 1.0)
+     */
+    public double getStatementCacheHitRate() {
+        long hits = statementCacheHits.get();
+        long total = hits + statementCacheMisses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+        if (isExpired(pooled, now) || isIdleTooLong(pooled, now)) {
+            return false;
+        }
+        if (now - pooled.lastReturnedAt < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return maxLifetimeMillis > 0 && now - pooled.createdAt >= maxLifetimeMillis;
+    }
+
+    private boolean isIdleTooLong(PooledConnection pooled, long now) {
+        return idleTimeoutMillis > 0 && now - pooled.lastReturnedAt >= idleTimeoutMillis;
+    }
+
+    /**
+     * Return a leased connection. Any open transaction is rolled back and
+     * auto-commit is restored so the next borrower gets a clean connection.
+     */
+    private void release(PooledConnection pooled) {
+        try {
+            if (shutdown || isExpired(pooled, System.currentTimeMillis())) {
+                discard(pooled);
+                return;
+            }
+            Connection physical = pooled.physical;
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            physical.clearWarnings();
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            idleConnections.offerFirst(pooled);
+        } catch (SQLException e) {
+            Logger.warn("Discarding pooled connection that failed to reset: " + e.getMessage());
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        if (pooled.statementCache != null) {
+            pooled.statementCache.closeAll();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            Logger.debug("Error closing physical connection: " + e.getMessage());
+        }
+    }
+
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : idleConnections) {
+            if ((isExpired(pooled, now) || isIdleTooLong(pooled, now)) && idleConnections.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+    }
+
+    /**
+     * A physical connection plus the bookkeeping the pool needs.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final long createdAt;
+        private final StatementCache statementCache;
+        private volatile long lastReturnedAt;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.createdAt = System.currentTimeMillis();
+            this.lastReturnedAt = createdAt;
+            this.statementCache = statementCacheSize > 0
+                    ? new StatementCache(statementCacheSize, statementCacheHits, statementCacheMisses)
+                    : null;
+        }
+
+        /**
+         * Create a fresh proxy for one borrower. A new handler per lease means a
+         * stale reference kept after close() cannot touch the next borrower's session.
+         */
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new LeaseHandler(this));
+        }
+    }
+
+    /**
+     * Invocation handler for a leased connection proxy.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        // Uncached statements opened during this lease, closed on return if the borrower didn't
+        private final List<Statement> openStatements = new ArrayList<>();
+        private boolean closed = false;
+
+        LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        closeOpenStatements();
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (closed ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if ("prepareStatement".equals(name) && pooled.statementCache != null && isCacheable(args)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : -1;
+                Statement cached = pooled.statementCache.prepare(
+                        pooled.physical, (Connection) proxy, (String) args[0], autoGeneratedKeys, queryTimeoutSeconds);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+
+            Object result;
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (result instanceof Statement) {
+                Statement statement = (Statement) result;
+                if (queryTimeoutSeconds > 0) {
+                    statement.setQueryTimeout(queryTimeoutSeconds);
+                }
+                openStatements.removeIf(this::isClosedQuietly);
+                openStatements.add(statement);
+            }
+            return result;
+        }
+
+        /**
+         * Only prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) are cached;
+         * the column-index/name and result-set-type variants are rare here and go straight through.
+         */
+        private boolean isCacheable(Object[] args) {
+            return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+        }
+
+        private void closeOpenStatements() {
+            for (Statement statement : openStatements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    Logger.debug("Error closing statement on connection return: " + e.getMessage());
+                }
+            }
+            openStatements.clear();
+            if (pooled.statementCache != null) {
+                pooled.statementCache.releaseAll();
+            }
+        }
+
+        private boolean isClosedQuietly(Statement statement) {
+            try {
+                return statement.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+    }
+}
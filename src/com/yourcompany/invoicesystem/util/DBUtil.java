@@ -6,11 +6,14 @@
 
 package com.yourcompany.invoicesystem.util; // Ensure this matches your package name
 
+import com.yourcompany.invoicesystem.config.ConfigManager;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
 
 public class DBUtil {
@@ -20,6 +23,7 @@ public class DBUtil {
     private static String DB_USER;
     private static String DB_PASSWORD;
     private static String DB_DRIVER;
+    private static ConnectionPool connectionPool;
 
     // Load database configuration from properties file
     static {
@@ -53,6 +57,23 @@ public class DBUtil {
             
             Logger.info("Database configuration loaded successfully");
             
+            // Build the connection pool from the Performance settings in config.properties
+            int poolSize = ConfigManager.getInt("connection.pool.size", 10);
+            int queryTimeout = ConfigManager.getInt("query.timeout.seconds", 30);
+            int statementCacheSize = ConfigManager.getInt("statement.cache.size", 64);
+            connectionPool = new ConnectionPool(DB_URL, DB_USER, DB_PASSWORD, poolSize,
+                    ConfigManager.getInt("connection.pool.acquire.timeout.ms", 5000),
+                    ConfigManager.getInt("connection.pool.idle.timeout.seconds", 300) * 1000L,
+                    ConfigManager.getInt("connection.pool.max.lifetime.minutes", 30) * 60_000L,
+                    ConfigManager.getInt("connection.pool.validation.timeout.seconds", 2),
+                    queryTimeout,
+                    statementCacheSize);
+            Runtime.getRuntime().addShutdownHook(new Thread(connectionPool::shutdown, "db-pool-shutdown"));
+            
+            Logger.info("Connection pool initialized (size: " + poolSize + ", query timeout: " + queryTimeout
+                    + "s, statement cache: " + statementCacheSize + " per connection)");
+            
+            
         } catch (IOException e) {
             Logger.error("Error loading database properties file", e);
             throw new RuntimeException("Failed to load database configuration.", e);
@@ -63,30 +84,73 @@ public class DBUtil {
     }
 
     /**
-     * Establishes and returns a connection to the database.
+     * Borrows a connection from the pool.
      * Connection is set to auto-commit by default.
+     * Closing the connection returns it to the pool.
      *
      * @return A Connection object.
-     * @throws SQLException if a database access error occurs.
+     * @throws SQLException if a database access error occurs or no connection is available in time.
      */
     public static Connection getConnection() throws SQLException {
-        Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        return connection;
+        return connectionPool.getConnection();
     }
     
     /**
-     * Establishes and returns a connection with specified auto-commit mode.
-     * Used for transaction management.
+     * Borrows a connection from the pool with specified auto-commit mode.
+     * Used for transaction management. Uncommitted work is rolled back
+     * when the connection is returned to the pool.
      *
      * @param autoCommit true to enable auto-commit, false to start a transaction.
      * @return A Connection object with specified auto-commit mode.
-     * @throws SQLException if a database access error occurs.
+     * @throws SQLException if a database access error occurs or no connection is available in time.
      */
     public static Connection getConnection(boolean autoCommit) throws SQLException {
-        Connection connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        connection.setAutoCommit(autoCommit);
+        Connection connection = connectionPool.getConnection();
+        try {
+            connection.setAutoCommit(autoCommit);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
         return connection;
     }
+    
+    /**
+     * Opens a new physical connection outside the pool, in auto-commit mode.
+     * For short background work that must not compete with checkouts for pooled
+     * connections. Closing it closes the physical connection.
+     *
+     * @return A Connection object.
+     * @throws SQLException if a database access error occurs.
+     */
+    public static Connection getUnpooledConnection() throws SQLException {
+        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+    }
+    
+    /**
+     * Get the shared connection pool (for monitoring pool usage).
+     * @return The connection pool
+     */
+    public static ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * Make a forward-only, read-only statement stream its result set instead of
+     * the driver reading every row into memory on executeQuery().
+     * With query.stream.fetch.size=0 rows are streamed one at a time (MySQL
+     * Connector/J's Integer.MIN_VALUE mode); a positive value fetches that many
+     * rows per round trip and needs useCursorFetch=true in db.url.
+     * While a streamed result set is open its connection can't run other
+     * statements, so read it to the end (or close it) before reusing the connection.
+     *
+     * @param stmt Statement about to execute a large query
+     * @throws SQLException if the fetch size can't be set
+     */
+    public static void enableStreaming(Statement stmt) throws SQLException {
+        int fetchSize = ConfigManager.getInt("query.stream.fetch.size", 0);
+        stmt.setFetchSize(fetchSize > 0 ? fetchSize : Integer.MIN_VALUE);
+    }
 
     // Optional: Add a method to close connections, statements, resultsets gracefully
     public static void close(AutoCloseable... closeables) {
@@ -87,45 +87,50 @@ public class DatabaseBackup {
         writer.write("-- Table: " + tableName + "\n");
         writer.write("DROP TABLE IF EXISTS `" + tableName + "`;\n");
         
-        Statement stmt = conn.createStatement();
-        ResultSet rs = stmt.executeQuery("SHOW CREATE TABLE `" + tableName + "`");
-        if (rs.next()) {
-            writer.write(rs.getString(2) + ";\n\n");
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW CREATE TABLE `" + tableName + "`")) {
+            if (rs.next()) {
+                writer.write(rs.getString(2) + ";\n\n");
+            }
         }
         
-        // Write table data
-        rs = stmt.executeQuery("SELECT * FROM `" + tableName + "`");
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnCount = metaData.getColumnCount();
-        
+        // Write table data, streamed so large tables aren't read into memory first
         int rowCount = 0;
-        while (rs.next()) {
-            if (rowCount == 0) {
-                writer.write("INSERT INTO `" + tableName + "` VALUES\n");
-            } else {
-                writer.write(",\n");
-            }
-            
-            writer.write("(");
-            for (int i = 1; i <= columnCount; i++) {
-                Object value = rs.getObject(i);
-                if (value == null) {
-                    writer.write("NULL");
-                } else if (value instanceof Number) {
-                    writer.write(value.toString());
-                } else if (value instanceof Timestamp || value instanceof Date) {
-                    writer.write("'" + value.toString() + "'");
-                } else {
-                    String strValue = value.toString().replace("'", "''");
-                    writer.write("'" + strValue + "'");
-                }
+        try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            DBUtil.enableStreaming(stmt);
+            try (ResultSet rs = stmt.executeQuery("SELECT * FROM `" + tableName + "`")) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
                 
-                if (i < columnCount) {
-                    writer.write(", ");
+                while (rs.next()) {
+                    if (rowCount == 0) {
+                        writer.write("INSERT INTO `" + tableName + "` VALUES\n");
+                    } else {
+                        writer.write(",\n");
+                    }
+                
+                    writer.write("(");
+                    for (int i = 1; i <= columnCount; i++) {
+                        Object value = rs.getObject(i);
+                        if (value == null) {
+                            writer.write("NULL");
+                        } else if (value instanceof Number) {
+                            writer.write(value.toString());
+                        } else if (value instanceof Timestamp || value instanceof Date) {
+                            writer.write("'" + value.toString() + "'");
+                        } else {
+                            String strValue = value.toString().replace("'", "''");
+                            writer.write("'" + strValue + "'");
+                        }
+                
+                        if (i < columnCount) {
+                            writer.write(", ");
+                        }
+                    }
+                    writer.write(")");
+                    rowCount++;
                 }
             }
-            writer.write(")");
-            rowCount++;
         }
         
         if (rowCount > 0) {
@@ -203,7 +208,7 @@ public class DatabaseBackup {
                             Logger.info("Executed " + statementCount + " statements");
                         }
                     } catch (SQLException e) {
-                        Logger.warn("Error executing SQL: " + sql.toString() + " - " + e.getMessage());
+                        Logger.warn("Error executing SQL: {} - {}", Logger.sql(sql), e.getMessage());
                     }
                     sql.setLength(0);
                 }
@@ -0,0 +1,171 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-thread context added to every log line written by that thread
+ * (mapped diagnostic context), so the lines of one checkout can be found
+ * together across the dialog, the service, the DAOs and the receipt.
+ *
+ * Values are set for the duration of a scope:
+ * <pre>
+ * try (LogContext.Scope scope = LogContext.put(LogContext.CORRELATION_ID, LogContext.newCorrelationId())
+ *                                         .put(LogContext.USER_ID, userId)) {
+ *     ...
+ * }
+ * </pre>
+ * A scope that is only opened to be closed makes javac -Xlint:try warn that
+ * the resource is never referenced; such methods carry @SuppressWarnings("try").
+ *
+ * The context does not follow work handed to another thread by itself: wrap the
+ * task (or the executor) with {@link #wrap}, which works for any executor,
+ * including one that starts a thread per task.
+ *
+ * Each thread holds an immutable map that is replaced on change, so taking a
+ * snapshot for a hand-off is free.
+ */
+public final class LogContext {
+
+    public static final String INVOICE_ID = "invoiceId";
+    public static final String USER_ID = "userId";
+    public static final String REGISTER = "register";
+    public static final String CORRELATION_ID = "correlationId";
+
+    private static final ThreadLocal<Map<String, Object>> CONTEXT =
+            ThreadLocal.withInitial(Collections::emptyMap);
+
+    private LogContext() {
+    }
+
+    /**
+     * Set a value until the returned scope is closed, which restores the context
+     * as it was before this call.
+     *
+     * @param key Context key, e.g. {@link #INVOICE_ID}
+     * @param value Value (numbers are written as JSON numbers); null removes the key
+     * @return The scope to close
+     */
+    public static Scope put(String key, Object value) {
+        Scope scope = new Scope(CONTEXT.get());
+        set(key, value);
+        return scope;
+    }
+
+    /**
+     * Set a value for the rest of the enclosing scope, e.g. an ID that only becomes
+     * known halfway through an operation.
+     */
+    public static void set(String key, Object value) {
+        Map<String, Object> current = CONTEXT.get();
+        if (value == null ? !current.containsKey(key) : value.equals(current.get(key))) {
+            return;
+        }
+        Map<String, Object> updated = new LinkedHashMap<>(current);
+        if (value == null) {
+            updated.remove(key);
+        } else {
+            updated.put(key, value);
+        }
+        CONTEXT.set(Collections.unmodifiableMap(updated));
+    }
+
+    /**
+     * @return The value for key in this thread's context, or null
+     */
+    public static Object get(String key) {
+        return CONTEXT.get().get(key);
+    }
+
+    /**
+     * @return This thread's context (unmodifiable, does not change afterwards)
+     */
+    public static Map<String, Object> snapshot() {
+        return CONTEXT.get();
+    }
+
+    /**
+     * Replace this thread's context with a snapshot taken elsewhere, e.g. on the
+     * thread that queued the work, until the returned scope is closed.
+     */
+    public static Scope restore(Map<String, Object> snapshot) {
+        Scope scope = new Scope(CONTEXT.get());
+        CONTEXT.set(snapshot);
+        return scope;
+    }
+
+    /**
+     * @return A new random ID to tie together the log lines of one operation
+     */
+    public static String newCorrelationId() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 16);
+    }
+
+    /**
+     * @return A task that runs with the calling thread's current context
+     */
+    @SuppressWarnings("try")
+    public static Runnable wrap(Runnable task) {
+        Map<String, Object> captured = CONTEXT.get();
+        return () -> {
+            try (Scope scope = restore(captured)) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * @return A task that runs with the calling thread's current context
+     */
+    @SuppressWarnings("try")
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Map<String, Object> captured = CONTEXT.get();
+        return () -> {
+            try (Scope scope = restore(captured)) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * @return An executor that runs each task with the context of the thread that submitted it
+     */
+    public static Executor wrap(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    /**
+     * Restores the context that was current when the scope was opened.
+     * Must be closed on the thread that opened it.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Map<String, Object> previous;
+
+        private Scope(Map<String, Object> previous) {
+            this.previous = previous;
+        }
+
+        /**
+         * Set another value in the same scope.
+         */
+        public Scope put(String key, Object value) {
+            set(key, value);
+            return this;
+        }
+
+        @Override
+        public void close() {
+            CONTEXT.set(previous);
+        }
+    }
+}
@@ -7,11 +7,15 @@
 package com.yourcompany.invoicesystem.util;
 
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.io.PrintWriter;
-import java.time.LocalDateTime;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
 
 /**
  * Simple logging utility for the Invoice Billing System.
@@ -26,12 +30,38 @@ public class Logger {
     
     private static final DateTimeFormatter TIMESTAMP_FORMAT = 
         DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final DateTimeFormatter JSON_TIMESTAMP_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+    
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String LOGGER_CLASS = Logger.class.getName();
     
     private static final String LOG_DIR = "logs";
     private static final String LOG_FILE = "application.log";
-    private static Level currentLevel = Level.INFO;
-    private static boolean consoleOutput = true;
-    private static boolean fileOutput = true;
+    private static volatile Level currentLevel = Level.INFO;
+    private static volatile boolean consoleOutput = true;
+    private static volatile boolean fileOutput = true;
+    // Class.method:line of the caller; costs a partial stack walk per message (log.caller.location)
+    private static volatile boolean callerLocation = true;
+    private static volatile int sqlMaxLength = 500;
+    // One JSON object per line instead of text, for log shippers (log.format=json)
+    private static volatile boolean jsonFormat = false;
+    
+    // File output goes through a background writer unless log.async.enabled=false
+    private static volatile boolean asyncEnabled = true;
+    private static volatile int asyncBufferSize = 8192;
+    private static volatile AsyncLogWriter.OverflowPolicy overflowPolicy = AsyncLogWriter.OverflowPolicy.DROP_DEBUG;
+    private static volatile int flushBytes = 8192;
+    private static volatile long flushIntervalMs = 200;
+    private static volatile AsyncLogWriter asyncWriter;   // created and replaced under Logger.class
+    
+    // Rolling of logs/application.log; rolled segments are gzipped in the background
+    private static volatile int rotateMaxSizeMb = 10;
+    private static volatile boolean rotateDaily = true;
+    private static volatile int retainFiles = 30;
+    private static volatile int retainDays = 30;
+    private static volatile RollingLogFile logFile;   // created and replaced under Logger.class
+    private static boolean shutdownHookAdded = false;
     
     static {
         // Create logs directory if it doesn't exist
@@ -41,6 +71,83 @@ public class Logger {
         }
     }
     
+    /**
+     * Apply the log.* settings from config.properties. Called by ConfigManager once
+     * it has loaded (Logger can't read ConfigManager itself: ConfigManager logs while loading).
+     * Settings not present keep their current values.
+     */
+    public static void configure(Properties config) {
+        String level = config.getProperty("log.level");
+        if (level != null) {
+            try {
+                currentLevel = Level.valueOf(level.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                warn("Invalid log.level: " + level);
+            }
+        }
+        String policy = config.getProperty("log.async.overflow.policy");
+        if (policy != null) {
+            try {
+                overflowPolicy = AsyncLogWriter.OverflowPolicy.valueOf(policy.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                warn("Invalid log.async.overflow.policy: " + policy);
+            }
+        }
+        String format = config.getProperty("log.format");
+        if (format != null) {
+            jsonFormat = format.trim().equalsIgnoreCase("json");
+        }
+        callerLocation = Boolean.parseBoolean(config.getProperty("log.caller.location", String.valueOf(callerLocation)));
+        sqlMaxLength = intProperty(config, "log.sql.max.length", sqlMaxLength);
+        asyncEnabled = Boolean.parseBoolean(config.getProperty("log.async.enabled", String.valueOf(asyncEnabled)));
+        asyncBufferSize = intProperty(config, "log.async.buffer.size", asyncBufferSize);
+        flushBytes = intProperty(config, "log.async.flush.bytes", flushBytes);
+        flushIntervalMs = intProperty(config, "log.async.flush.interval.ms", (int) flushIntervalMs);
+        rotateMaxSizeMb = intProperty(config, "log.rotate.max.size.mb", rotateMaxSizeMb);
+        rotateDaily = Boolean.parseBoolean(config.getProperty("log.rotate.daily", String.valueOf(rotateDaily)));
+        retainFiles = intProperty(config, "log.retain.files", retainFiles);
+        retainDays = intProperty(config, "log.retain.days", retainDays);
+        
+        // Start over with the new settings; the old writer flushes what it has queued
+        synchronized (Logger.class) {
+            if (asyncWriter != null) {
+                asyncWriter.close(2000);
+                asyncWriter = null;
+            }
+            if (logFile != null) {
+                logFile.close();
+                logFile = null;
+            }
+        }
+    }
+    
+    private static int intProperty(Properties config, String key, int defaultValue) {
+        String value = config.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            warn("Invalid integer value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * Write out everything queued for the log file and stop the background writer.
+     * Runs automatically at JVM shutdown; later messages are written synchronously.
+     */
+    public static void shutdown() {
+        synchronized (Logger.class) {
+            if (asyncWriter != null) {
+                asyncWriter.close(5000);
+                asyncWriter = null;
+            }
+            asyncEnabled = false;
+        }
+    }
+    
     /**
      * Set the minimum logging level
      */
@@ -104,35 +211,187 @@ public class Logger {
         log(Level.ERROR, message, throwable);
     }
     
+    /**
+     * Log a debug message built only if DEBUG is enabled,
+     * e.g. {@code Logger.debug(() -> "Cart: " + cart)}
+     */
+    public static void debug(Supplier<String> message) {
+        log(Level.DEBUG, message, null);
+    }
+    
+    /**
+     * Log an info message built only if INFO is enabled
+     */
+    public static void info(Supplier<String> message) {
+        log(Level.INFO, message, null);
+    }
+    
+    /**
+     * Log a warning message built only if WARN is enabled
+     */
+    public static void warn(Supplier<String> message) {
+        log(Level.WARN, message, null);
+    }
+    
+    /**
+     * Log an error message with exception, built only if ERROR is enabled
+     */
+    public static void error(Supplier<String> message, Throwable throwable) {
+        log(Level.ERROR, message, throwable);
+    }
+    
+    /**
+     * Log a debug message with {} placeholders, e.g. {@code Logger.debug("Saved invoice {} in {} ms", id, ms)}.
+     * The message is only formatted if DEBUG is enabled. A Throwable left over after
+     * the placeholders are filled is logged as the exception.
+     */
+    public static void debug(String template, Object... args) {
+        logTemplate(Level.DEBUG, template, args);
+    }
+    
+    /**
+     * Log an info message with {} placeholders
+     */
+    public static void info(String template, Object... args) {
+        logTemplate(Level.INFO, template, args);
+    }
+    
+    /**
+     * Log a warning message with {} placeholders
+     */
+    public static void warn(String template, Object... args) {
+        logTemplate(Level.WARN, template, args);
+    }
+    
+    /**
+     * Log an error message with {} placeholders
+     */
+    public static void error(String template, Object... args) {
+        logTemplate(Level.ERROR, template, args);
+    }
+    
+    /**
+     * Log a message with named values, e.g. timings. Text output appends them as
+     * key=value; JSON output adds them as properties, with numbers unquoted so
+     * latencies can be aggregated without parsing the message.
+     *
+     * @param fields Values in output order; Numbers are written as JSON numbers
+     */
+    public static void event(Level level, String message, Map<String, ?> fields) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        write(level, message, fields, null);
+    }
+    
+    /**
+     * Wrap SQL text for use as a {} argument: it is cut to log.sql.max.length characters
+     * when the message is formatted, so restore scripts and batch inserts don't flood the log.
+     * Nothing is copied if the message is below the current level.
+     */
+    public static Object sql(CharSequence sql) {
+        return new SqlText(sql);
+    }
+    
+    /**
+     * @return true if messages at this level are currently logged
+     */
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= currentLevel.ordinal() && (consoleOutput || fileOutput);
+    }
+    
+    /**
+     * @return true if DEBUG messages are currently logged
+     */
+    public static boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+    
     /**
      * Internal logging method
      */
     private static void log(Level level, String message, Throwable throwable) {
-        if (level.ordinal() < currentLevel.ordinal()) {
-            return; // Skip if below minimum level
+        if (!isEnabled(level)) {
+            return; // Skip before any formatting or stack walking
         }
-        
-        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        write(level, message, null, throwable);
+    }
+    
+    private static void log(Level level, Supplier<String> message, Throwable throwable) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        write(level, String.valueOf(message.get()), null, throwable);
+    }
+    
+    private static void logTemplate(Level level, String template, Object[] args) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        Throwable throwable = null;
+        if (args != null && args.length > 0 && args[args.length - 1] instanceof Throwable
+                && countPlaceholders(template) < args.length) {
+            throwable = (Throwable) args[args.length - 1];
+        }
+        write(level, format(template, args), null, throwable);
+    }
+    
+    /**
+     * Replace each {} in the template with the next argument, in order.
+     * Placeholders without an argument are left as they are; extra arguments are ignored.
+     */
+    static String format(String template, Object... args) {
+        if (template == null || args == null || args.length == 0) {
+            return template;
+        }
+        StringBuilder result = new StringBuilder(template.length() + 16 * args.length);
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while (argIndex < args.length && (placeholder = template.indexOf("{}", start)) >= 0) {
+            result.append(template, start, placeholder);
+            appendArg(result, args[argIndex++]);
+            start = placeholder + 2;
+        }
+        result.append(template, start, template.length());
+        return result.toString();
+    }
+    
+    private static void appendArg(StringBuilder result, Object arg) {
+        if (arg instanceof Object[]) {
+            result.append(Arrays.deepToString((Object[]) arg));
+        } else {
+            result.append(arg);
+        }
+    }
+    
+    private static int countPlaceholders(String template) {
+        int count = 0;
+        int index = template != null ? template.indexOf("{}") : -1;
+        while (index >= 0) {
+            count++;
+            index = template.indexOf("{}", index + 2);
+        }
+        return count;
+    }
+    
+    private static void write(Level level, String message, Map<String, ?> fields, Throwable throwable) {
+        ZonedDateTime now = ZonedDateTime.now();
         String threadName = Thread.currentThread().getName();
-        StackTraceElement caller = getCallerInfo();
-        String className = caller.getClassName();
-        String methodName = caller.getMethodName();
-        int lineNumber = caller.getLineNumber();
-        
-        // Shorten class name
-        String shortClassName = className.substring(className.lastIndexOf('.') + 1);
-        
-        // Build log message
-        StringBuilder logMessage = new StringBuilder();
-        logMessage.append(timestamp)
-                  .append(" [").append(threadName).append("]")
-                  .append(" ").append(level.name())
-                  .append(" ").append(shortClassName)
-                  .append(".").append(methodName)
-                  .append(":").append(lineNumber)
-                  .append(" - ").append(message);
+        StackWalker.StackFrame caller = callerLocation ? getCallerInfo() : null;
+        Map<String, Object> context = LogContext.snapshot();
         
-        String logLine = logMessage.toString();
+        String logLine;
+        if (jsonFormat) {
+            logLine = jsonLine(now.format(JSON_TIMESTAMP_FORMAT), threadName, level,
+                    caller != null ? caller.getClassName() : null,
+                    caller != null ? caller.getMethodName() : null,
+                    caller != null ? caller.getLineNumber() : -1,
+                    message, context, fields, throwable);
+            throwable = null; // included in the line
+        } else {
+            logLine = textLine(now.format(TIMESTAMP_FORMAT), threadName, level, caller, message, context, fields);
+        }
         
         // Output to console
         if (consoleOutput) {
@@ -149,45 +408,220 @@ public class Logger {
         
         // Output to file
         if (fileOutput) {
-            writeToFile(logLine, throwable);
+            AsyncLogWriter writer = asyncEnabled ? asyncWriter() : null;
+            if (writer != null) {
+                writer.append(level, logLine, throwable);
+            } else {
+                writeToFile(logLine, throwable);
+            }
+        }
+    }
+    
+    private static String textLine(String timestamp, String threadName, Level level, StackWalker.StackFrame caller,
+                                   String message, Map<String, Object> context, Map<String, ?> fields) {
+        StringBuilder line = new StringBuilder(96 + (message != null ? message.length() : 4));
+        line.append(timestamp)
+            .append(" [").append(threadName).append("]")
+            .append(" ").append(level.name());
+        
+        if (caller != null) {
+            // Shorten class name
+            String className = caller.getClassName();
+            line.append(" ").append(className.substring(className.lastIndexOf('.') + 1))
+                .append(".").append(caller.getMethodName())
+                .append(":").append(caller.getLineNumber());
+        }
+        if (!context.isEmpty()) {
+            line.append(" {");
+            appendKeyValues(line, context);
+            line.append("}");
+        }
+        line.append(" - ").append(message);
+        if (fields != null && !fields.isEmpty()) {
+            line.append(" ");
+            appendKeyValues(line, fields);
+        }
+        return line.toString();
+    }
+    
+    private static void appendKeyValues(StringBuilder line, Map<String, ?> values) {
+        boolean first = true;
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            if (!first) {
+                line.append(" ");
+            }
+            line.append(entry.getKey()).append("=").append(entry.getValue());
+            first = false;
+        }
+    }
+    
+    /**
+     * One log event as a single-line JSON object: ts, level, thread, logger/method/line
+     * (if known), msg, then the context and field values as top-level properties, and
+     * the stack trace as "exception". Numbers are written unquoted.
+     */
+    static String jsonLine(String timestamp, String threadName, Level level, String className, String methodName,
+                           int lineNumber, String message, Map<String, ?> context, Map<String, ?> fields,
+                           Throwable throwable) {
+        StringBuilder json = new StringBuilder(160 + (message != null ? message.length() : 4));
+        json.append("{\"ts\":");
+        appendJsonString(json, timestamp);
+        json.append(",\"level\":\"").append(level.name()).append("\",\"thread\":");
+        appendJsonString(json, threadName);
+        if (className != null) {
+            json.append(",\"logger\":");
+            appendJsonString(json, className);
+            json.append(",\"method\":");
+            appendJsonString(json, methodName);
+            json.append(",\"line\":").append(lineNumber);
+        }
+        json.append(",\"msg\":");
+        appendJsonString(json, message);
+        appendJsonProperties(json, context);
+        appendJsonProperties(json, fields);
+        if (throwable != null) {
+            StringWriter trace = new StringWriter();
+            throwable.printStackTrace(new PrintWriter(trace));
+            json.append(",\"exception\":");
+            appendJsonString(json, trace.toString());
+        }
+        return json.append('}').toString();
+    }
+    
+    private static void appendJsonProperties(StringBuilder json, Map<String, ?> values) {
+        if (values == null) {
+            return;
+        }
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            json.append(',');
+            appendJsonString(json, entry.getKey());
+            json.append(':');
+            appendJsonValue(json, entry.getValue());
+        }
+    }
+    
+    private static void appendJsonValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Boolean) {
+            json.append(value);
+        } else if (value instanceof Number && isFinite((Number) value)) {
+            json.append(value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString());
+        } else {
+            appendJsonString(json, value.toString());
+        }
+    }
+    
+    private static boolean isFinite(Number value) {
+        if (value instanceof Double || value instanceof Float) {
+            return Double.isFinite(value.doubleValue());
+        }
+        return true;
+    }
+    
+    private static void appendJsonString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+    
+    /**
+     * Called for every line, so only the first call after startup or configure()
+     * takes the lock. A writer closed by a concurrent configure() or shutdown()
+     * still accepts lines and writes them straight to the file.
+     */
+    private static AsyncLogWriter asyncWriter() {
+        AsyncLogWriter writer = asyncWriter;
+        if (writer != null) {
+            return writer;
+        }
+        synchronized (Logger.class) {
+            if (asyncWriter == null && asyncEnabled) {
+                asyncWriter = new AsyncLogWriter(logFile(), asyncBufferSize, overflowPolicy,
+                        flushBytes, flushIntervalMs);
+                if (!shutdownHookAdded) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(Logger::shutdown, "log-flush"));
+                    shutdownHookAdded = true;
+                }
+            }
+            return asyncWriter;
         }
     }
     
     /**
-     * Write log message to file
+     * Write log message to file (synchronous; used when async logging is off)
      */
     private static void writeToFile(String message, Throwable throwable) {
-        File logFile = new File(LOG_DIR, LOG_FILE);
-        
-        try (FileWriter fw = new FileWriter(logFile, true);
-             PrintWriter pw = new PrintWriter(fw)) {
-            
-            pw.println(message);
-            
-            if (throwable != null) {
-                throwable.printStackTrace(pw);
+        RollingLogFile file = logFile();
+        file.write(message, throwable);
+        file.flush();
+    }
+    
+    private static RollingLogFile logFile() {
+        RollingLogFile file = logFile;
+        if (file != null) {
+            return file;
+        }
+        synchronized (Logger.class) {
+            if (logFile == null) {
+                logFile = new RollingLogFile(new File(LOG_DIR, LOG_FILE), rotateMaxSizeMb * 1024L * 1024L,
+                        rotateDaily, retainFiles, retainDays);
             }
-            
-        } catch (IOException e) {
-            // Can't log this error without causing recursion, so just print to stderr
-            System.err.println("Failed to write to log file: " + e.getMessage());
+            return logFile;
         }
     }
     
     /**
-     * Get information about the caller (who called the log method)
+     * Get information about the caller (who called the log method).
+     * Walks only as far as the first frame outside Logger instead of capturing the whole stack.
+     */
+    private static StackWalker.StackFrame getCallerInfo() {
+        return STACK_WALKER.walk(frames -> frames
+                .dropWhile(frame -> frame.getClassName().equals(LOGGER_CLASS))
+                .findFirst()
+                .orElse(null));
+    }
+    
+    /**
+     * SQL text that is shortened only when a message using it is formatted.
      */
-    private static StackTraceElement getCallerInfo() {
-        StackTraceElement[] stackTrace = Thread.currentThread().getStackTrace();
-        // Skip: getStackTrace, getCallerInfo, log, and the public log method (debug/info/warn/error)
-        for (int i = 4; i < stackTrace.length; i++) {
-            StackTraceElement element = stackTrace[i];
-            if (!element.getClassName().equals(Logger.class.getName())) {
-                return element;
+    private static final class SqlText {
+        private final CharSequence sql;
+        
+        SqlText(CharSequence sql) {
+            this.sql = sql;
+        }
+        
+        @Override
+        public String toString() {
+            if (sql == null) {
+                return "null";
+            }
+            int max = sqlMaxLength;
+            if (max <= 0 || sql.length() <= max) {
+                return sql.toString().trim();
             }
+            return sql.subSequence(0, max) + "... (" + sql.length() + " chars)";
         }
-        // Fallback
-        return stackTrace[stackTrace.length - 1];
     }
     
     /**
@@ -8,9 +8,7 @@ package com.yourcompany.invoicesystem.util;
 
 import com.yourcompany.invoicesystem.model.Invoice;
 import com.yourcompany.invoicesystem.model.InvoiceItem;
-import com.yourcompany.invoicesystem.model.Product;
 import com.yourcompany.invoicesystem.dao.InvoiceItemDAO;
-import com.yourcompany.invoicesystem.dao.ProductDAO;
 
 import java.io.FileWriter;
 import java.io.IOException;
@@ -25,14 +23,12 @@ import java.util.List;
 public class ReceiptPrinter {
     
     private InvoiceItemDAO invoiceItemDAO;
-    private ProductDAO productDAO;
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MMM-yyyy HH:mm");
     private static final int RECEIPT_WIDTH = 48; // Characters wide for thermal printer
     
     public ReceiptPrinter() {
         this.invoiceItemDAO = new InvoiceItemDAO();
-        this.productDAO = new ProductDAO();
     }
     
     /**
@@ -42,7 +38,7 @@ public class ReceiptPrinter {
         StringBuilder receipt = new StringBuilder();
         
         try {
-            List<InvoiceItem> items = invoiceItemDAO.getInvoiceItemsByInvoiceId(invoice.getInvoiceID());
+            List<InvoiceItem> items = invoiceItemDAO.getInvoiceItemsWithProductNames(invoice.getInvoiceID());
             
             // Header
             receipt.append(centerText("PROBILLING", RECEIPT_WIDTH)).append("\n");
@@ -65,8 +61,7 @@ public class ReceiptPrinter {
             
             // Items
             for (InvoiceItem item : items) {
-                Product product = productDAO.getProductById(item.getProductID());
-                String productName = (product != null) ? product.getName() : "Unknown";
+                String productName = (item.getProductName() != null) ? item.getProductName() : "Unknown";
                 
                 // Truncate long names
                 if (productName.length() > 20) {
@@ -109,7 +104,7 @@ public class ReceiptPrinter {
         StringBuilder receipt = new StringBuilder();
         
         try {
-            List<InvoiceItem> items = invoiceItemDAO.getInvoiceItemsByInvoiceId(invoice.getInvoiceID());
+            List<InvoiceItem> items = invoiceItemDAO.getInvoiceItemsWithProductNames(invoice.getInvoiceID());
             
             // Header with logo area
             receipt.append("\n");
@@ -143,8 +138,7 @@ public class ReceiptPrinter {
             
             // Items
             for (InvoiceItem item : items) {
-                Product product = productDAO.getProductById(item.getProductID());
-                String productName = (product != null) ? product.getName() : "Unknown Product";
+                String productName = (item.getProductName() != null) ? item.getProductName() : "Unknown Product";
                 
                 if (productName.length() > 30) {
                     productName = productName.substring(0, 27) + "...";
@@ -6,19 +6,20 @@
 
 package com.yourcompany.invoicesystem.util;
 
+import com.yourcompany.invoicesystem.cache.ProductCatalogCache;
 import com.yourcompany.invoicesystem.dao.InvoiceDAO;
+import com.yourcompany.invoicesystem.dao.InvoiceFilter;
 import com.yourcompany.invoicesystem.dao.InvoiceItemDAO;
 import com.yourcompany.invoicesystem.dao.ProductDAO;
-import com.yourcompany.invoicesystem.model.Invoice;
-import com.yourcompany.invoicesystem.model.InvoiceItem;
 import com.yourcompany.invoicesystem.model.Product;
+import com.yourcompany.invoicesystem.model.SalesTotals;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public class ReportGenerator {
     
@@ -27,6 +28,7 @@ public class ReportGenerator {
     private ProductDAO productDAO;
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
+    private static final int TOP_PRODUCTS = 10;
     
     public ReportGenerator() {
         this.invoiceDAO = new InvoiceDAO();
@@ -48,45 +50,45 @@ public class ReportGenerator {
         report.append("Generated: ").append(LocalDate.now().format(DATE_FORMATTER)).append("\n\n");
         
         try {
-            List<Invoice> invoices = invoiceDAO.getInvoicesByDateRange(startDate, endDate);
+            InvoiceFilter filter = new InvoiceFilter.Builder().fromDate(startDate).toDate(endDate).build();
+            StringBuilder details = new StringBuilder();
+            BigDecimal[] totalRevenue = {BigDecimal.ZERO};
+            int[] totalItemsSold = {0};
             
-            if (invoices.isEmpty()) {
+            // One grouped query, streamed: each invoice arrives with its item count already computed
+            long queryStart = System.nanoTime();
+            int totalInvoices = invoiceDAO.forEachInvoiceSummary(filter, summary -> {
+                totalItemsSold[0] += summary.getItemCount();
+                totalRevenue[0] = totalRevenue[0].add(summary.getTotalAmount());
+                
+                details.append(String.format("Invoice #%-6d  Date: %-15s  Amount: €%10.2f  Items: %d\n",
+                    summary.getInvoiceID(),
+                    summary.getInvoiceDate().format(DATE_FORMATTER),
+                    summary.getTotalAmount(),
+                    summary.getItemCount()));
+            });
+            Logger.info("Sales report query: " + totalInvoices + " invoices in "
+                    + (System.nanoTime() - queryStart) / 1_000_000 + " ms (" + startDate + " to " + endDate + ")");
+            
+            if (totalInvoices == 0) {
                 report.append("No sales data available for this period.\n");
                 return report.toString();
             }
             
-            BigDecimal totalRevenue = BigDecimal.ZERO;
-            int totalInvoices = invoices.size();
-            int totalItemsSold = 0;
-            
             report.append("───────────────────────────────────────────────────\n");
             report.append("Invoice Details:\n");
             report.append("───────────────────────────────────────────────────\n\n");
-            
-            for (Invoice invoice : invoices) {
-                List<InvoiceItem> items = invoiceItemDAO.getInvoiceItemsByInvoiceId(invoice.getInvoiceID());
-                int itemCount = items.size();
-                totalItemsSold += itemCount;
-                totalRevenue = totalRevenue.add(invoice.getTotalAmount());
-                
-                report.append(String.format("Invoice #%-6d  Date: %-15s  Amount: €%10.2f  Items: %d\n",
-                    invoice.getInvoiceID(),
-                    invoice.getInvoiceDate().format(DATE_FORMATTER),
-                    invoice.getTotalAmount(),
-                    itemCount));
-            }
+            report.append(details);
             
             report.append("\n═══════════════════════════════════════════════════\n");
             report.append("Summary:\n");
             report.append("───────────────────────────────────────────────────\n");
             report.append(String.format("Total Invoices:        %d\n", totalInvoices));
-            report.append(String.format("Total Items Sold:      %d\n", totalItemsSold));
-            report.append(String.format("Total Revenue:         €%.2f\n", totalRevenue));
+            report.append(String.format("Total Items Sold:      %d\n", totalItemsSold[0]));
+            report.append(String.format("Total Revenue:         €%.2f\n", totalRevenue[0]));
             
-            if (totalInvoices > 0) {
-                BigDecimal avgInvoice = totalRevenue.divide(new BigDecimal(totalInvoices), 2, java.math.RoundingMode.HALF_UP);
-                report.append(String.format("Average Invoice:       €%.2f\n", avgInvoice));
-            }
+            BigDecimal avgInvoice = totalRevenue[0].divide(new BigDecimal(totalInvoices), 2, java.math.RoundingMode.HALF_UP);
+            report.append(String.format("Average Invoice:       €%.2f\n", avgInvoice));
             
             report.append("═══════════════════════════════════════════════════\n");
             
@@ -109,7 +111,7 @@ public class ReportGenerator {
         report.append("Generated: ").append(LocalDate.now().format(DATE_FORMATTER)).append("\n\n");
         
         try {
-            List<Product> products = productDAO.getAllProducts();
+            List<Product> products = ProductCatalogCache.getInstance().getAllProducts();
             
             if (products.isEmpty()) {
                 report.append("No products in inventory.\n");
@@ -186,34 +188,25 @@ public class ReportGenerator {
         report.append("Generated: ").append(LocalDate.now().format(DATE_FORMATTER)).append("\n\n");
         
         try {
-            List<Invoice> invoices = invoiceDAO.getInvoicesByDateRange(startDate, endDate);
+            InvoiceFilter filter = new InvoiceFilter.Builder().fromDate(startDate).toDate(endDate).build();
+            long queryStart = System.nanoTime();
+            SalesTotals totals = invoiceDAO.getSalesTotals(filter);
             
-            if (invoices.isEmpty()) {
+            if (totals.getInvoiceCount() == 0) {
                 report.append("No data available for this period.\n");
                 return report.toString();
             }
             
-            // Analyze product sales
-            Map<Integer, ProductSalesInfo> productSales = new HashMap<>();
-            BigDecimal revenueAccumulator = BigDecimal.ZERO;
+            // Per-product totals are grouped in SQL and ranked without sorting every product
+            RevenueRanking ranking = new RevenueRanking();
+            invoiceItemDAO.forEachProductSales(filter, ranking::add);
+            List<RevenueRanking.Entry> topProducts = ranking.top(TOP_PRODUCTS);
             
-            for (Invoice invoice : invoices) {
-                revenueAccumulator = revenueAccumulator.add(invoice.getTotalAmount());
-                List<InvoiceItem> items = invoiceItemDAO.getInvoiceItemsByInvoiceId(invoice.getInvoiceID());
-                
-                for (InvoiceItem item : items) {
-                    int productId = item.getProductID();
-                    ProductSalesInfo info = productSales.getOrDefault(productId, 
-                        new ProductSalesInfo(productId));
-                    
-                    info.quantitySold += item.getQuantity();
-                    BigDecimal itemTotal = item.getPriceAtSale()
-                        .multiply(new BigDecimal(item.getQuantity()));
-                    info.revenue = info.revenue.add(itemTotal);
-                    
-                    productSales.put(productId, info);
-                }
-            }
+            // Resolve all ten names in one query
+            Map<Integer, Product> productsById = productDAO.getProductsByIds(
+                topProducts.stream().map(RevenueRanking.Entry::getProductId).collect(Collectors.toList()));
+            Logger.info("Revenue analysis query: " + ranking.size() + " products over " + totals.getInvoiceCount()
+                    + " invoices in " + (System.nanoTime() - queryStart) / 1_000_000 + " ms");
             
             report.append("───────────────────────────────────────────────────\n");
             report.append("Top Selling Products by Revenue:\n");
@@ -222,48 +215,36 @@ public class ReportGenerator {
                 "ID", "Product Name", "Qty Sold", "Revenue", "% of Total"));
             report.append("───────────────────────────────────────────────────\n");
             
-            // Make final for lambda usage
-            final BigDecimal totalRevenue = revenueAccumulator;
-            
-            // Sort by revenue
-            productSales.values().stream()
-                .sorted((a, b) -> b.revenue.compareTo(a.revenue))
-                .limit(10)
-                .forEach(info -> {
-                    try {
-                        Product product = productDAO.getProductById(info.productId);
-                        String name = (product != null) ? product.getName() : "Unknown";
-                        if (name.length() > 25) {
-                            name = name.substring(0, 22) + "...";
-                        }
-                        
-                        BigDecimal percentage = info.revenue
-                            .divide(totalRevenue, 4, java.math.RoundingMode.HALF_UP)
-                            .multiply(new BigDecimal(100));
-                        
-                        report.append(String.format("%-6d %-25s %12d €%11.2f %9.2f%%\n",
-                            info.productId,
-                            name,
-                            info.quantitySold,
-                            info.revenue,
-                            percentage));
-                    } catch (Exception e) {
-                        // Skip this product if error occurs
-                    }
-                });
+            BigDecimal totalRevenue = totals.getTotalAmount();
+            for (RevenueRanking.Entry entry : topProducts) {
+                Product product = productsById.get(entry.getProductId());
+                String name = (product != null) ? product.getName() : "Unknown";
+                if (name.length() > 25) {
+                    name = name.substring(0, 22) + "...";
+                }
+                
+                BigDecimal percentage = totalRevenue.signum() == 0 ? BigDecimal.ZERO : entry.getRevenue()
+                    .divide(totalRevenue, 4, java.math.RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal(100));
+                
+                report.append(String.format("%-6d %-25s %12d €%11.2f %9.2f%%\n",
+                    entry.getProductId(),
+                    name,
+                    entry.getQuantity(),
+                    entry.getRevenue(),
+                    percentage));
+            }
             
             report.append("\n═══════════════════════════════════════════════════\n");
             report.append("Revenue Summary:\n");
             report.append("───────────────────────────────────────────────────\n");
             report.append(String.format("Total Revenue:         €%.2f\n", totalRevenue));
-            report.append(String.format("Total Invoices:        %d\n", invoices.size()));
-            report.append(String.format("Unique Products Sold:  %d\n", productSales.size()));
+            report.append(String.format("Total Invoices:        %d\n", totals.getInvoiceCount()));
+            report.append(String.format("Unique Products Sold:  %d\n", ranking.size()));
             
-            if (!invoices.isEmpty()) {
-                BigDecimal avgRevenue = totalRevenue.divide(
-                    new BigDecimal(invoices.size()), 2, java.math.RoundingMode.HALF_UP);
-                report.append(String.format("Average per Invoice:   €%.2f\n", avgRevenue));
-            }
+            BigDecimal avgRevenue = totalRevenue.divide(
+                new BigDecimal(totals.getInvoiceCount()), 2, java.math.RoundingMode.HALF_UP);
+            report.append(String.format("Average per Invoice:   €%.2f\n", avgRevenue));
             
             report.append("═══════════════════════════════════════════════════\n");
             
@@ -273,16 +254,4 @@ public class ReportGenerator {
         
         return report.toString();
     }
-    
-    // Helper class for product sales tracking
-    private static class ProductSalesInfo {
-        int productId;
-        int quantitySold = 0;
-        BigDecimal revenue = BigDecimal.ZERO;
-        
-        ProductSalesInfo(int productId) {
-            this.productId = productId;
-        }
-    }
 }
-
@@ -0,0 +1,212 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.util;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Accumulates quantity and revenue per product and ranks products by revenue.
+ *
+ * Totals are kept in parallel primitive arrays indexed through an open-addressing
+ * int hash table, with revenue as long cents, so adding a sale allocates nothing
+ * and 100k products fit in a few MB. top(n) keeps a bounded min-heap of n entries
+ * instead of sorting every product. Not thread-safe.
+ */
+public class RevenueRanking {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Dense per-product columns; index i is one product
+    private int[] productIds = new int[INITIAL_CAPACITY];
+    private long[] quantities = new long[INITIAL_CAPACITY];
+    private long[] revenueCents = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // Open-addressing table of dense index + 1 (0 = empty slot), kept at most half full
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+
+    /**
+     * Add a sale (or an already aggregated per-product total) to the ranking.
+     *
+     * @param productId Product sold
+     * @param quantity Units sold
+     * @param cents Revenue in cents
+     */
+    public void add(int productId, long quantity, long cents) {
+        int index = indexOf(productId);
+        quantities[index] += quantity;
+        revenueCents[index] += cents;
+    }
+
+    /**
+     * @return Number of distinct products added
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param n Maximum number of products to return
+     * @return The n products with the highest revenue, highest first
+     *         (ties go to the lower product ID)
+     */
+    public List<Entry> top(int n) {
+        int limit = Math.min(Math.max(n, 0), size);
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+
+        // Min-heap of the best `limit` products seen so far; the root is the weakest of them
+        int[] heap = new int[limit];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (heapSize < limit) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++);
+            } else if (ranksAbove(i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        // Draining the min-heap yields ascending order; fill the result from the back
+        Entry[] result = new Entry[heapSize];
+        while (heapSize > 0) {
+            int index = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize);
+            result[heapSize] = new Entry(productIds[index], quantities[index], revenueCents[index]);
+        }
+        return new ArrayList<>(Arrays.asList(result));
+    }
+
+    private int indexOf(int productId) {
+        int mask = table.length - 1;
+        int slot = mix(productId) & mask;
+        while (table[slot] != 0) {
+            int index = table[slot] - 1;
+            if (productIds[index] == productId) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == productIds.length) {
+            grow();
+            return indexOf(productId);
+        }
+        int index = size++;
+        productIds[index] = productId;
+        table[slot] = index + 1;
+        return index;
+    }
+
+    private void grow() {
+        int capacity = productIds.length * 2;
+        productIds = Arrays.copyOf(productIds, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        revenueCents = Arrays.copyOf(revenueCents, capacity);
+
+        table = new int[capacity * 2];
+        int mask = table.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = mix(productIds[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    // Sequential product IDs would otherwise fill neighbouring slots and make long probe runs
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private boolean ranksAbove(int a, int b) {
+        if (revenueCents[a] != revenueCents[b]) {
+            return revenueCents[a] > revenueCents[b];
+        }
+        return productIds[a] < productIds[b];
+    }
+
+    private void siftUp(int[] heap, int pos) {
+        int item = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!ranksAbove(heap[parent], item)) {
+                break;
+            }
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = item;
+    }
+
+    private void siftDown(int[] heap, int heapSize) {
+        if (heapSize == 0) {
+            return;
+        }
+        int pos = 0;
+        int item = heap[0];
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && ranksAbove(heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!ranksAbove(item, heap[child])) {
+                break;
+            }
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = item;
+    }
+
+    /**
+     * One product's totals in a ranking result.
+     */
+    public static final class Entry {
+        private final int productId;
+        private final long quantity;
+        private final long revenueCents;
+
+        Entry(int productId, long quantity, long revenueCents) {
+            this.productId = productId;
+            this.quantity = quantity;
+            this.revenueCents = revenueCents;
+        }
+
+        public int getProductId() {
+            return productId;
+        }
+
+        public long getQuantity() {
+            return quantity;
+        }
+
+        public long getRevenueCents() {
+            return revenueCents;
+        }
+
+        public BigDecimal getRevenue() {
+            return BigDecimal.valueOf(revenueCents, 2);
+        }
+
+        @Override
+        public String toString() {
+            return "Entry [productId=" + productId + ", quantity=" + quantity + ", revenue=" + getRevenue() + "]";
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The log file, kept open and rolled over in place.
+ *
+ * When the file reaches maxBytes, or the first time it is written after midnight,
+ * it is closed and renamed to name-yyyy-MM-dd.N.log (the day its lines were
+ * written) and a new file is started. Rolled segments are gzipped and old ones
+ * deleted on a background thread, so the writer only pays for a rename.
+ * Retention keeps at most maxFiles segments and none older than maxAgeDays.
+ *
+ * Size is counted as bytes reach the file, so a segment can exceed maxBytes by
+ * up to one write buffer. All methods are synchronized: the background log
+ * writer and synchronous logging can share one instance.
+ */
+class RollingLogFile {
+
+    // One thread for all instances: Logger.configure() replaces the instance while
+    // the old one's segments may still be compressing
+    private static ExecutorService compressor;
+
+    private final File file;
+    private final String baseName;
+    private final String extension;
+    private final long maxBytes;
+    private final boolean daily;
+    private final int maxFiles;
+    private final int maxAgeDays;
+
+    private PrintWriter out;
+    private CountingOutputStream counter;
+    private LocalDate segmentDay;
+    private long nextRollMillis = Long.MAX_VALUE;
+    private boolean sweepScheduled = false;
+    private LocalDate lastSegmentDay;
+    private int lastSegmentIndex;
+
+    /**
+     * @param file Active log file, e.g. logs/application.log
+     * @param maxBytes Roll once the file reaches this size (0 = no size limit)
+     * @param daily Roll on the first write after midnight
+     * @param maxFiles Rolled segments to keep (0 = no limit)
+     * @param maxAgeDays Delete rolled segments older than this (0 = no limit)
+     */
+    RollingLogFile(File file, long maxBytes, boolean daily, int maxFiles, int maxAgeDays) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        this.file = file;
+        this.baseName = dot > 0 ? name.substring(0, dot) : name;
+        this.extension = dot > 0 ? name.substring(dot) : "";
+        this.maxBytes = maxBytes;
+        this.daily = daily;
+        this.maxFiles = maxFiles;
+        this.maxAgeDays = maxAgeDays;
+    }
+
+    /**
+     * Write a line (and optional stack trace), rolling the file first if it is due.
+     * Output stays buffered until {@link #flush()}.
+     */
+    synchronized void write(String line, Throwable throwable) {
+        if (out == null && !open()) {
+            return;
+        }
+        if ((maxBytes > 0 && counter.count >= maxBytes) || System.currentTimeMillis() >= nextRollMillis) {
+            roll();
+            if (out == null && !open()) {
+                return;
+            }
+        }
+        out.println(line);
+        if (throwable != null) {
+            throwable.printStackTrace(out);
+        }
+    }
+
+    synchronized void flush() {
+        if (out != null) {
+            out.flush();
+            if (out.checkError()) {
+                System.err.println("Failed to write to log file: " + file);
+                closeQuietly(); // reopened on the next write
+            }
+        }
+    }
+
+    synchronized void close() {
+        flush();
+        closeQuietly();
+    }
+
+    private boolean open() {
+        try {
+            File dir = file.getAbsoluteFile().getParentFile();
+            if (dir != null && !dir.exists()) {
+                dir.mkdirs();
+            }
+            long existing = file.length();
+            // Lines already in the file belong to the day it was last written
+            segmentDay = existing > 0
+                    ? Instant.ofEpochMilli(file.lastModified()).atZone(ZoneId.systemDefault()).toLocalDate()
+                    : LocalDate.now();
+            nextRollMillis = daily ? nextMidnight(segmentDay) : Long.MAX_VALUE;
+            counter = new CountingOutputStream(new FileOutputStream(file, true), existing);
+            out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(counter, StandardCharsets.UTF_8), 64 * 1024), false);
+        } catch (IOException e) {
+            // Can't log this error without causing recursion, so just print to stderr
+            System.err.println("Failed to open log file: " + e.getMessage());
+            return false;
+        }
+        if (!sweepScheduled) {
+            sweepScheduled = true;
+            scheduleSweep(); // segments left uncompressed by an earlier run
+        }
+        return true;
+    }
+
+    private void roll() {
+        out.flush();
+        closeQuietly();
+
+        File segment = nextSegmentName(segmentDay);
+        if (!file.renameTo(segment)) {
+            // e.g. the file is held open by another process on Windows; keep appending
+            // and try again after another maxBytes or at the next midnight
+            System.err.println("Failed to roll log file " + file + " to " + segment.getName());
+            if (open()) {
+                counter.count = 0;
+                nextRollMillis = daily ? nextMidnight(LocalDate.now()) : Long.MAX_VALUE;
+            }
+            return;
+        }
+        scheduleSweep();
+    }
+
+    private static long nextMidnight(LocalDate day) {
+        return day.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private File nextSegmentName(LocalDate day) {
+        // Continue after the highest index for the day, so a name freed by retention is never reused
+        String prefix = baseName + "-" + day + ".";
+        File dir = file.getAbsoluteFile().getParentFile();
+        String[] names = dir.list((d, name) -> name.startsWith(prefix));
+        int index = day.equals(lastSegmentDay) ? lastSegmentIndex : 0;
+        if (names != null) {
+            for (String name : names) {
+                int end = name.indexOf('.', prefix.length());
+                try {
+                    index = Math.max(index, Integer.parseInt(name.substring(prefix.length(), end < 0 ? name.length() : end)));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        lastSegmentDay = day;
+        lastSegmentIndex = index + 1;
+        return new File(dir, prefix + lastSegmentIndex + extension);
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            out.close();
+            out = null;
+            counter = null;
+        }
+    }
+
+    private void scheduleSweep() {
+        synchronized (RollingLogFile.class) {
+            if (compressor == null) {
+                compressor = Executors.newSingleThreadExecutor(r -> {
+                    Thread thread = new Thread(r, "log-compress");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+            }
+            compressor.execute(this::sweep);
+        }
+    }
+
+    /**
+     * Gzip rolled segments that are not compressed yet, then apply retention.
+     * Runs on the compressor thread.
+     */
+    private void sweep() {
+        File dir = file.getAbsoluteFile().getParentFile();
+        File[] rolled = dir.listFiles((d, name) -> name.startsWith(baseName + "-")
+                && (name.endsWith(extension) || name.endsWith(extension + ".gz")));
+        if (rolled == null) {
+            return;
+        }
+
+        List<File> segments = new ArrayList<>();
+        for (File segment : rolled) {
+            segments.add(segment.getName().endsWith(".gz") ? segment : compress(segment));
+        }
+
+        // Newest first
+        segments.sort(Comparator.comparingLong(File::lastModified).reversed());
+        long cutoff = maxAgeDays > 0 ? System.currentTimeMillis() - TimeUnit.DAYS.toMillis(maxAgeDays) : Long.MIN_VALUE;
+        for (int i = 0; i < segments.size(); i++) {
+            File segment = segments.get(i);
+            if ((maxFiles > 0 && i >= maxFiles) || segment.lastModified() < cutoff) {
+                if (!segment.delete()) {
+                    System.err.println("Failed to delete old log file: " + segment);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The .gz file, or the segment itself if it could not be compressed
+     */
+    private static File compress(File segment) {
+        File gz = new File(segment.getPath() + ".gz");
+        long lastModified = segment.lastModified();
+        try (InputStream in = new FileInputStream(segment);
+             OutputStream gzOut = new GZIPOutputStream(new FileOutputStream(gz), 64 * 1024)) {
+            in.transferTo(gzOut);
+        } catch (IOException e) {
+            System.err.println("Failed to compress log file " + segment + ": " + e.getMessage());
+            gz.delete();
+            return segment;
+        }
+        // Keep the segment's time so retention orders by when it was written, not compressed
+        gz.setLastModified(lastModified);
+        if (!segment.delete()) {
+            System.err.println("Failed to delete compressed log file: " + segment);
+        }
+        return gz;
+    }
+
+    /**
+     * Counts the bytes that reach the file, so size checks don't need a stat call.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out, long initialCount) {
+            super(out);
+            this.count = initialCount;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for one pooled physical connection.
+ *
+ * DAOs keep calling conn.prepareStatement(sql) and closing the result as usual;
+ * close() just parks the statement here so the next prepare of the same SQL text
+ * skips parsing. This works for both MySQL server-side prepared statements
+ * (useServerPrepStmts=true, saves the PREPARE round trip) and the driver's
+ * default client-side emulation (saves re-parsing the SQL on the client).
+ *
+ * A statement is handed to only one caller at a time. If the same SQL is
+ * prepared again while the cached copy is still open, an uncached statement
+ * is created for the second caller.
+ */
+final class StatementCache {
+
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    // Evicted while still checked out; closed on check-in or when the lease ends
+    private final List<CachedStatement> retired = new ArrayList<>();
+
+    /**
+     * @param maxSize Maximum number of cached statements
+     * @param hits Counter incremented on every cache hit (shared across the pool)
+     * @param misses Counter incremented on every cache miss (shared across the pool)
+     */
+    StatementCache(int maxSize, AtomicLong hits, AtomicLong misses) {
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Get a prepared statement for the SQL text, reusing a cached one when available.
+     *
+     * @param physical The physical connection that owns this cache
+     * @param owner The leased connection proxy, returned from Statement.getConnection()
+     * @param sql SQL text
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS, NO_GENERATED_KEYS, or -1 if not specified
+     * @param queryTimeoutSeconds Query timeout for newly prepared statements (0 = none)
+     * @return A statement whose close() returns it to the cache, or null if the
+     *         cached statement for this SQL is already checked out
+     */
+    synchronized PreparedStatement prepare(Connection physical, Connection owner, String sql,
+                                           int autoGeneratedKeys, int queryTimeoutSeconds) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "keys:" + sql : sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null) {
+            if (cached.inUse) {
+                // Same SQL is already checked out (e.g. nested use); caller prepares an uncached copy
+                return null;
+            }
+            hits.incrementAndGet();
+            return cached.checkout(owner);
+        }
+
+        misses.incrementAndGet();
+        PreparedStatement statement = autoGeneratedKeys >= 0
+                ? physical.prepareStatement(sql, autoGeneratedKeys)
+                : physical.prepareStatement(sql);
+        if (queryTimeoutSeconds > 0) {
+            statement.setQueryTimeout(queryTimeoutSeconds);
+        }
+
+        cached = new CachedStatement(statement);
+        statements.put(key, cached);
+        evictOverflow();
+        return cached.checkout(owner);
+    }
+
+    /**
+     * Mark every statement as available again. Called when the connection is
+     * returned to the pool, so statements a caller forgot to close are not lost.
+     */
+    synchronized void releaseAll() {
+        Iterator<CachedStatement> iterator = statements.values().iterator();
+        while (iterator.hasNext()) {
+            CachedStatement cached = iterator.next();
+            if (!cached.inUse) {
+                continue;
+            }
+            cached.checkedOutBy.closed = true; // stale references must not reach the next lease
+            cached.inUse = false;
+            if (!cached.reset()) {
+                iterator.remove();
+                cached.closeQuietly();
+            }
+        }
+        for (CachedStatement cached : retired) {
+            cached.checkedOutBy.closed = true;
+            cached.closeQuietly();
+        }
+        retired.clear();
+    }
+
+    /**
+     * Close every cached statement (the physical connection is being closed).
+     */
+    synchronized void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.closeQuietly();
+        }
+        statements.clear();
+        for (CachedStatement cached : retired) {
+            cached.closeQuietly();
+        }
+        retired.clear();
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    private synchronized void checkin(CachedStatement cached) {
+        cached.inUse = false;
+        if (cached.evicted) {
+            retired.remove(cached);
+            cached.closeQuietly();
+        } else if (!cached.reset()) {
+            statements.values().remove(cached);
+            cached.closeQuietly();
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, CachedStatement>> iterator = statements.entrySet().iterator();
+        while (statements.size() > maxSize && iterator.hasNext()) {
+            CachedStatement eldest = iterator.next().getValue();
+            iterator.remove();
+            if (eldest.inUse) {
+                eldest.evicted = true; // closed when its current user is done with it
+                retired.add(eldest);
+            } else {
+                eldest.closeQuietly();
+            }
+        }
+    }
+
+    /**
+     * One physical statement and its checkout state.
+     */
+    private final class CachedStatement {
+        private final PreparedStatement statement;
+        private final int defaultFetchSize;
+        private final int defaultMaxRows;
+        private final int defaultQueryTimeout;
+        private boolean inUse = false;
+        private boolean evicted = false;
+        private CheckoutHandler checkedOutBy;
+
+        CachedStatement(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultMaxRows = statement.getMaxRows();
+            this.defaultQueryTimeout = statement.getQueryTimeout(); // includes the pool-wide timeout
+        }
+
+        PreparedStatement checkout(Connection owner) {
+            inUse = true;
+            checkedOutBy = new CheckoutHandler(this, owner);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    checkedOutBy);
+        }
+
+        /**
+         * Clear per-use state so the next caller starts fresh.
+         * @return false if the statement is no longer usable
+         */
+        boolean reset() {
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                if (statement.getFetchSize() != defaultFetchSize) {
+                    statement.setFetchSize(defaultFetchSize); // don't leak streaming mode to the next caller
+                }
+                if (statement.getMaxRows() != defaultMaxRows) {
+                    statement.setMaxRows(defaultMaxRows);
+                }
+                if (statement.getQueryTimeout() != defaultQueryTimeout) {
+                    statement.setQueryTimeout(defaultQueryTimeout);
+                }
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                Logger.debug("Error closing cached statement: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Invocation handler for one checkout of a cached statement.
+     */
+    private final class CheckoutHandler implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private volatile boolean closed = false;
+
+        CheckoutHandler(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        checkin(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.statement + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.cache;
+
+import com.yourcompany.invoicesystem.model.Product;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit tests for ProductSearchIndex
+ */
+public class ProductSearchIndexTest {
+
+    private static Product product(int id, String name, String barcode) {
+        Product product = new Product(id, name, new BigDecimal("1.00"), 10);
+        product.setBarcode(barcode);
+        return product;
+    }
+
+    private final ProductSearchIndex index = new ProductSearchIndex(List.of(
+            product(1, "Whole Milk 1L", "4001234567890"),
+            product(2, "Skimmed Milk 1L", null),
+            product(3, "Milk Chocolate (Dark)", null),
+            product(42, "Bread", "5009876543210")));
+
+    @Test
+    public void testSubstringIsCaseInsensitive() {
+        assertEquals(Set.of(1, 2, 3), index.search("MILK"));
+        assertEquals(Set.of(1, 2), index.search("milk 1l"));
+        assertEquals(Set.of(3), index.search("k choc"));
+    }
+
+    @Test
+    public void testShortQueryScans() {
+        assertEquals(Set.of(1, 2), index.search("1l"));
+        assertEquals(Set.of(42), index.search("42"));
+    }
+
+    @Test
+    public void testMatchesIdAndBarcode() {
+        assertEquals(Set.of(42), index.search("9876"));
+        assertEquals(Set.of(1), index.search("4001234567890"));
+    }
+
+    @Test
+    public void testRegexCharactersAreLiteral() {
+        assertEquals(Set.of(3), index.search("(dark)"));
+        assertTrue(index.search("milk+").isEmpty());
+    }
+
+    @Test
+    public void testNoMatchAcrossFields() {
+        // name "Bread" followed by its ID 42 must not match "bread4"
+        assertTrue(index.search("bread4").isEmpty());
+    }
+
+    @Test
+    public void testBlankQueryMatchesAll() {
+        assertEquals(Set.of(1, 2, 3, 42), index.search("  "));
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        index.put(product(2, "Oat Drink 1L", null));
+        assertEquals(Set.of(1, 3), index.search("milk"));
+        assertEquals(Set.of(2), index.search("oat"));
+
+        index.remove(1);
+        assertEquals(Set.of(3), index.search("milk"));
+        assertEquals(3, index.size());
+
+        index.put(product(7, "Milk Powder", "123"));
+        assertEquals(Set.of(3, 7), index.search("milk"));
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unit tests for LogContext and the JSON log line format
+ */
+public class LogContextTest {
+
+    @Test
+    @SuppressWarnings("try")
+    public void testScopeRestoresPreviousContext() {
+        try (LogContext.Scope outer = LogContext.put(LogContext.USER_ID, 7)) {
+            try (LogContext.Scope inner = LogContext.put(LogContext.USER_ID, 8).put(LogContext.INVOICE_ID, 42)) {
+                assertEquals(8, LogContext.get(LogContext.USER_ID));
+                assertEquals(42, LogContext.get(LogContext.INVOICE_ID));
+            }
+            assertEquals(7, LogContext.get(LogContext.USER_ID));
+            assertNull(LogContext.get(LogContext.INVOICE_ID));
+        }
+        assertTrue(LogContext.snapshot().isEmpty());
+    }
+
+    @Test
+    public void testSnapshotIsNotChangedByLaterPuts() {
+        try (LogContext.Scope scope = LogContext.put(LogContext.REGISTER, "till-1")) {
+            Map<String, Object> snapshot = LogContext.snapshot();
+            scope.put(LogContext.INVOICE_ID, 5);
+            assertEquals(1, snapshot.size());
+            assertThrows(UnsupportedOperationException.class, () -> snapshot.put("x", "y"));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testWrapCarriesContextToExecutorThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (LogContext.Scope scope = LogContext.put(LogContext.CORRELATION_ID, "abc123")) {
+            Future<Object> seen = executor.submit(LogContext.wrap(() -> LogContext.get(LogContext.CORRELATION_ID)));
+            assertEquals("abc123", seen.get());
+
+            // The worker's own context is back to empty after the task
+            Future<Boolean> empty = executor.submit(() -> LogContext.snapshot().isEmpty());
+            assertTrue(empty.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testJsonLineWritesNumbersUnquotedAndEscapesText() {
+        Map<String, Object> context = new LinkedHashMap<>();
+        context.put(LogContext.INVOICE_ID, 1001);
+        context.put(LogContext.CORRELATION_ID, "9f2c");
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("totalMs", 12.5);
+        fields.put("items", 3);
+
+        String line = Logger.jsonLine("2025-01-02T03:04:05.678+01:00", "main", Logger.Level.INFO,
+                "com.example.Checkout", "save", 12, "Paid \"cash\"\nok", context, fields, null);
+
+        assertEquals("{\"ts\":\"2025-01-02T03:04:05.678+01:00\",\"level\":\"INFO\",\"thread\":\"main\","
+                + "\"logger\":\"com.example.Checkout\",\"method\":\"save\",\"line\":12,"
+                + "\"msg\":\"Paid \\\"cash\\\"\\nok\",\"invoiceId\":1001,\"correlationId\":\"9f2c\","
+                + "\"totalMs\":12.5,\"items\":3}", line);
+    }
+
+    @Test
+    public void testJsonLineIncludesExceptionInSameLine() {
+        String line = Logger.jsonLine("t", "worker", Logger.Level.ERROR, null, null, -1, "failed",
+                Map.of(), null, new IllegalStateException("boom"));
+
+        assertFalse(line.contains("\n"));
+        assertFalse(line.contains("\"logger\""));
+        assertTrue(line.contains("\"exception\":\"java.lang.IllegalStateException: boom\\n"));
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Author: Jay Prakash Kumar
+ * Copyright (c) 2025
+ * Licensed under MIT License
+ */
+
+package com.yourcompany.invoicesystem.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for RevenueRanking
+ */
+public class RevenueRankingTest {
+
+    private static List<Integer> ids(List<RevenueRanking.Entry> entries) {
+        return entries.stream().map(RevenueRanking.Entry::getProductId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testAccumulatesPerProduct() {
+        RevenueRanking ranking = new RevenueRanking();
+        ranking.add(7, 2, 1998);
+        ranking.add(3, 1, 500);
+        ranking.add(7, 1, 999);
+
+        assertEquals(2, ranking.size());
+        RevenueRanking.Entry top = ranking.top(1).get(0);
+        assertEquals(7, top.getProductId());
+        assertEquals(3, top.getQuantity());
+        assertEquals(2997, top.getRevenueCents());
+        assertEquals(new BigDecimal("29.97"), top.getRevenue());
+    }
+
+    @Test
+    public void testTopIsOrderedByRevenueThenId() {
+        RevenueRanking ranking = new RevenueRanking();
+        ranking.add(1, 1, 100);
+        ranking.add(2, 1, 300);
+        ranking.add(3, 1, 200);
+        ranking.add(4, 1, 300);
+        ranking.add(5, 1, 50);
+
+        assertEquals(List.of(2, 4, 3), ids(ranking.top(3)));
+        assertEquals(List.of(2, 4, 3, 1, 5), ids(ranking.top(10)));
+    }
+
+    @Test
+    public void testEmptyAndZeroLimit() {
+        RevenueRanking ranking = new RevenueRanking();
+        assertTrue(ranking.top(10).isEmpty());
+        ranking.add(1, 1, 100);
+        assertTrue(ranking.top(0).isEmpty());
+    }
+
+    @Test
+    public void testManyProductsMatchFullSort() {
+        RevenueRanking ranking = new RevenueRanking();
+        int products = 100_000;
+        for (int id = 1; id <= products; id++) {
+            // Revenue peaks at ID 50000 and falls off on both sides; some ties
+            ranking.add(id, 1, products - Math.abs(id - 50_000) / 2);
+        }
+        for (int id = 1; id <= products; id += 1000) {
+            ranking.add(id, 1, 0); // repeat keys after growth
+        }
+
+        assertEquals(products, ranking.size());
+        assertEquals(List.of(49_999, 50_000, 50_001, 49_997, 49_998), ids(ranking.top(5)));
+    }
+}